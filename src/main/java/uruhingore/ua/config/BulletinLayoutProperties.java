@@ -0,0 +1,62 @@
+package uruhingore.ua.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout definition of the bulletins of the school (prefix "rendering.layout"). Compiled once at
+ * startup into a {@link uruhingore.ua.service.BulletinLayout}; the defaults are the original layout.
+ * The score thresholds are not part of the layout: they come from the grading scheme of the class.
+ */
+@Data
+@ConfigurationProperties(prefix = "rendering.layout")
+public class BulletinLayoutProperties {
+
+    private School school = new School();
+
+    /**
+     * Standard PDF font names (see FontFactory)
+     */
+    private String font = "Helvetica";
+    private String boldFont = "Helvetica-Bold";
+
+    private Colors colors = new Colors();
+
+    /**
+     * Colour of each grade of the grading schemes (green, blue, yellow, red)
+     */
+    private Map<String, String> gradeColors = new LinkedHashMap<>(Map.of(
+            "green", "#00B050",
+            "blue", "#0070C0",
+            "yellow", "#FFC000",
+            "red", "#FF0000"));
+
+    /**
+     * Sections of the trimester bulletin, top to bottom: LETTERHEAD, CLASS_INFO, TITLE, STUDENT_NAME,
+     * RANK, GRADES, COMMENT, SIGNATURES
+     */
+    private List<String> sections = new ArrayList<>(List.of(
+            "LETTERHEAD", "CLASS_INFO", "TITLE", "STUDENT_NAME", "RANK", "GRADES", "COMMENT", "SIGNATURES"));
+
+    @Data
+    public static class School {
+        private String name = "URUHONGORE ACADEMY";
+        private String phone = "0784696074/0786064017";
+        private List<String> locationLeft = new ArrayList<>(List.of("DISTRICT: KICUKIRO", "VILLAGE: NYANZA"));
+        private List<String> locationRight = new ArrayList<>(List.of("SECTEUR: GATENGA", "VILLAGE: JURU"));
+    }
+
+    @Data
+    public static class Colors {
+        // #RRGGBB
+        private String gradeHeader = "#00B050";
+        private String gridHeader = "#C8C8C8";
+        private String gridTrimesterHeader = "#90EE90";
+        private String gridScoreText = "#FFFFFF";
+    }
+}
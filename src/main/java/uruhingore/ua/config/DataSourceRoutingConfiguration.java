@@ -0,0 +1,106 @@
+package uruhingore.ua.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single data source by a primary pool plus one pool per read replica when
+ * replicas.enabled=true. Read-only transactions are routed by {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "replicas", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfiguration {
+
+    /**
+     * The primary pool, configured from spring.datasource like the default one; migrations always run here
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      DataSourceProperties dataSourceProperties,
+                                                      ReplicaProperties replicaProperties,
+                                                      ObjectProvider<MeterRegistry> meterRegistry,
+                                                      @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        // An open session keeps the connection of its first transaction for the whole request, so a
+        // write after a read-only transaction would be sent to the replica
+        if (openInView) {
+            throw new IllegalStateException("replicas.enabled requires spring.jpa.open-in-view=false");
+        }
+        if (replicaProperties.getPools().isEmpty()) {
+            throw new IllegalArgumentException("replicas.enabled is true but no replicas.pools are configured");
+        }
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (ReplicaProperties.Pool pool : replicaProperties.getPools()) {
+            String name = StringUtils.hasText(pool.getName()) ? pool.getName() : "replica" + (replicas.size() + 1);
+            if (replicas.containsKey(name) || ReplicaRoutingDataSource.PRIMARY.equals(name)) {
+                throw new IllegalArgumentException("Duplicate replica name: " + name);
+            }
+            HikariDataSource replica = replicaPool(name, pool, primaryDataSource, dataSourceProperties);
+            // Same pool metrics as the primary (only bean data sources are instrumented automatically)
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.put(name, replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, replicaProperties.getReadYourWrites());
+    }
+
+    /**
+     * The data source used by JPA and JdbcTemplate; the lazy proxy delays picking a target until
+     * the first statement, when the read-only flag of the transaction is known
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource routingDataSource, ReplicaProperties replicaProperties) {
+        return new ReplicaLagMonitor(routingDataSource, replicaProperties.getMaxLag());
+    }
+
+    private static HikariDataSource replicaPool(String name, ReplicaProperties.Pool pool, HikariDataSource primary,
+                                                DataSourceProperties dataSourceProperties) {
+        if (!StringUtils.hasText(pool.getUrl())) {
+            throw new IllegalArgumentException("Replica " + name + " has no url");
+        }
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica-" + name);
+        dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        dataSource.setJdbcUrl(pool.getUrl());
+        dataSource.setUsername(pool.getUsername() != null ? pool.getUsername() : primary.getUsername());
+        dataSource.setPassword(pool.getPassword() != null ? pool.getPassword() : primary.getPassword());
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        dataSource.setDataSourceProperties(primary.getDataSourceProperties());
+        dataSource.setLeakDetectionThreshold(primary.getLeakDetectionThreshold());
+        dataSource.setReadOnly(true);
+        // Replicas may be down at startup; the lag monitor keeps them out of rotation until they answer
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+}
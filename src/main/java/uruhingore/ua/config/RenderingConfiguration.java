@@ -0,0 +1,23 @@
+package uruhingore.ua.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uruhingore.ua.service.BulletinLayout;
+
+/**
+ * Compiles the bulletin layout definition at startup, so an invalid layout fails the boot instead of a render
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(BulletinLayoutProperties.class)
+public class RenderingConfiguration {
+
+    @Bean
+    public BulletinLayout bulletinLayout(BulletinLayoutProperties definition) {
+        BulletinLayout layout = BulletinLayout.compile(definition);
+        log.info("Bulletin layout for {}: sections {}", layout.getSchoolName(), layout.getSections());
+        return layout;
+    }
+}
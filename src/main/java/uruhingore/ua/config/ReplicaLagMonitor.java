@@ -0,0 +1,58 @@
+package uruhingore.ua.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Measures the replay lag of every replica and takes replicas that fall behind out of rotation
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // 0 when the replica has replayed everything it received (an idle primary produces no new
+    // transactions, so the last replay timestamp alone would make an up-to-date replica look stale)
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Duration maxLag;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, Duration maxLag) {
+        this.routingDataSource = routingDataSource;
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${replicas.check-interval:5000}")
+    public void checkReplicas() {
+        for (Map.Entry<String, HikariDataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            routingDataSource.setHealthy(replica.getKey(), isWithinLag(replica.getKey(), replica.getValue()));
+        }
+        routingDataSource.evictExpiredWrites();
+    }
+
+    private boolean isWithinLag(String name, HikariDataSource dataSource) {
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setQueryTimeout(2);
+            Double lagSeconds = jdbcTemplate.queryForObject(LAG_SQL, Double.class);
+            long lagMillis = lagSeconds != null ? Math.round(lagSeconds * 1000) : 0;
+            if (lagMillis > maxLag.toMillis()) {
+                log.warn("Replica {} is {} ms behind the primary (max {} ms)", name, lagMillis, maxLag.toMillis());
+                return false;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Lag check of replica {} failed: {}", name, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package uruhingore.ua.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas that serve the read-only transactions (prefix "replicas")
+ */
+@Data
+@ConfigurationProperties(prefix = "replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * A replica further behind the primary than this is skipped until it catches up
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * After a user commits a write, their reads stay on the primary for this long
+     */
+    private Duration readYourWrites = Duration.ofSeconds(10);
+
+    private List<Pool> pools = new ArrayList<>();
+
+    @Data
+    public static class Pool {
+        private String name;
+        private String url;
+        // Default to the primary credentials
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
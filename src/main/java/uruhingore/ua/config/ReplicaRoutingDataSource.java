@@ -0,0 +1,133 @@
+package uruhingore.ua.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica (round-robin) and everything else to the primary.
+ * Users who committed a write in the last readYourWrites window keep reading from the primary so they
+ * see their own changes. Must sit behind a LazyConnectionDataSourceProxy: the transaction is only
+ * marked read-only after the connection is requested.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final Map<String, HikariDataSource> replicas;
+    private final List<String> replicaNames;
+    private final long readYourWritesNanos;
+
+    private final Set<String> healthy = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, Map<String, HikariDataSource> replicas, Duration readYourWrites) {
+        this.replicas = replicas;
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.readYourWritesNanos = readYourWrites.toNanos();
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        // An unknown key is a bug, never silently fall back to the primary
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lastWrites.put(user, System.nanoTime());
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (user != null && wroteRecently(user)) {
+            return PRIMARY;
+        }
+        return pickReplica();
+    }
+
+    private String pickReplica() {
+        List<String> candidates = new ArrayList<>(replicaNames.size());
+        for (String name : replicaNames) {
+            if (healthy.contains(name)) {
+                candidates.add(name);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    private boolean wroteRecently(String user) {
+        Long at = lastWrites.get(user);
+        if (at == null) {
+            return false;
+        }
+        if (System.nanoTime() - at < readYourWritesNanos) {
+            return true;
+        }
+        lastWrites.remove(user, at);
+        return false;
+    }
+
+    /**
+     * Record the outcome of a lag check
+     */
+    void setHealthy(String replica, boolean isHealthy) {
+        boolean changed = isHealthy ? healthy.add(replica) : healthy.remove(replica);
+        if (changed) {
+            log.info("Replica {} is now {}", replica, isHealthy ? "in rotation" : "out of rotation");
+        }
+    }
+
+    /**
+     * Forget write timestamps older than the readYourWrites window
+     */
+    void evictExpiredWrites() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(at -> now - at >= readYourWritesNanos);
+    }
+
+    Map<String, HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -1,9 +1,11 @@
 package uruhingore.ua.config;
 
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -39,11 +41,23 @@ public class SecurityConfiguration {
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(authorize -> authorize
+                        // Async results (e.g. bulletin renders) are dispatched again once ready; the request was
+                        // already authorized and the JWT filter does not run for that dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Swagger/OpenAPI endpoints - no authentication required
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/swagger-resources/**", "/webjars/**").permitAll()
                         // Public endpoints - no authentication required
                         .requestMatchers("/api/auth/login").permitAll()
                         .requestMatchers("/api/auth/register").permitAll()
+                        // Head-teacher endpoints (analytics, administration)
+                        .requestMatchers("/api/head/**").hasAuthority("HEAD")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("HEAD")
+                        // School-wide bulk data: staff only
+                        .requestMatchers(HttpMethod.GET, "/api/reports/export/**").hasAnyAuthority("HEAD", "TEACHER")
+                        .requestMatchers(HttpMethod.POST, "/api/reports/import/**").hasAnyAuthority("HEAD", "TEACHER")
+                        .requestMatchers(HttpMethod.POST, "/api/students/import").hasAnyAuthority("HEAD", "TEACHER")
+                        .requestMatchers(HttpMethod.GET, "/api/reports/ranking/class/**").hasAnyAuthority("HEAD", "TEACHER")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
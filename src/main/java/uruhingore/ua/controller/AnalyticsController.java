@@ -0,0 +1,89 @@
+package uruhingore.ua.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import uruhingore.ua.dto.AnalyticsResponse;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.service.AnalyticsService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/head/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    /**
+     * Per-module score statistics for an academic data
+     */
+    @GetMapping("/academic-data/{academicDataId}/modules")
+    public ResponseEntity<List<AnalyticsResponse.ModuleStats>> getModuleStats(
+            @PathVariable UUID academicDataId,
+            @RequestParam(required = false) ClassLevel classLevel) {
+        log.info("Received request for module analytics: academicData={}, classLevel={}", academicDataId, classLevel);
+        return ResponseEntity.ok(analyticsService.getModuleStats(academicDataId, classLevel));
+    }
+
+    /**
+     * Score distribution (10-point buckets) of one module for a class
+     */
+    @GetMapping("/academic-data/{academicDataId}/class/{classLevel}/modules/{moduleId}/distribution")
+    public ResponseEntity<List<AnalyticsResponse.ScoreBucket>> getModuleDistribution(
+            @PathVariable UUID academicDataId,
+            @PathVariable ClassLevel classLevel,
+            @PathVariable UUID moduleId) {
+        log.info("Received request for score distribution: academicData={}, classLevel={}, module={}",
+                academicDataId, classLevel, moduleId);
+        return ResponseEntity.ok(analyticsService.getModuleDistribution(academicDataId, classLevel, moduleId));
+    }
+
+    /**
+     * Per-class statistics and pass rates by grade colour for an academic data
+     */
+    @GetMapping("/academic-data/{academicDataId}/classes")
+    public ResponseEntity<List<AnalyticsResponse.ClassStats>> getClassStats(@PathVariable UUID academicDataId) {
+        log.info("Received request for class analytics: academicData={}", academicDataId);
+        return ResponseEntity.ok(analyticsService.getClassStats(academicDataId));
+    }
+
+    /**
+     * Trimester-over-trimester trends
+     */
+    @GetMapping("/trends")
+    public ResponseEntity<List<AnalyticsResponse.TrimesterTrend>> getTrimesterTrends(
+            @RequestParam(required = false) ClassLevel classLevel) {
+        log.info("Received request for trimester trends: classLevel={}", classLevel);
+        return ResponseEntity.ok(analyticsService.getTrimesterTrends(classLevel));
+    }
+
+    /**
+     * Refresh the analytics views manually (they are refreshed automatically on publish)
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshAnalytics() {
+        try {
+            log.info("Received request to refresh analytics views");
+            analyticsService.refreshViews();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Analytics refreshed successfully");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error refreshing analytics: {}", e.getMessage(), e);
+            Map<String, Object> errorBody = new HashMap<>();
+            errorBody.put("timestamp", java.time.LocalDateTime.now());
+            errorBody.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+            errorBody.put("error", "Internal Server Error");
+            errorBody.put("message", "An error occurred while refreshing analytics: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorBody);
+        }
+    }
+}
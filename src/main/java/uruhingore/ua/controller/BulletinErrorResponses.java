@@ -0,0 +1,61 @@
+package uruhingore.ua.controller;
+
+import com.itextpdf.text.DocumentException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Error responses of the bulletin endpoints: 503 with Retry-After when the render pool is saturated,
+ * 404 for a missing student or academic data, 500 otherwise
+ */
+@Slf4j
+@Component
+class BulletinErrorResponses {
+
+    @Value("${rendering.retry-after-seconds:5}")
+    private int renderRetryAfterSeconds;
+
+    ResponseEntity<?> of(Throwable error) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("timestamp", java.time.LocalDateTime.now());
+        if (e instanceof RejectedExecutionException) {
+            log.warn("Bulletin render rejected: {}", e.getMessage());
+            errorBody.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+            errorBody.put("error", "Service Unavailable");
+            errorBody.put("message", "Too many bulletins are being generated, please retry shortly");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(renderRetryAfterSeconds))
+                    .body(errorBody);
+        }
+        if (e instanceof IllegalArgumentException) {
+            log.error("Invalid request: {}", e.getMessage());
+            errorBody.put("status", HttpStatus.NOT_FOUND.value());
+            errorBody.put("error", "Not Found");
+            errorBody.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorBody);
+        }
+        if (e instanceof DocumentException || e instanceof IOException) {
+            log.error("Error generating bulletin: {}", e.getMessage(), e);
+            errorBody.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+            errorBody.put("error", "Internal Server Error");
+            errorBody.put("message", "An error occurred while generating the bulletin: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorBody);
+        }
+        log.error("Unexpected error generating bulletin: {}", e.getMessage(), e);
+        errorBody.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+        errorBody.put("error", "Internal Server Error");
+        errorBody.put("message", "An unexpected error occurred while generating the bulletin: " + e.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorBody);
+    }
+}
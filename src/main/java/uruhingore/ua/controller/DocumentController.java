@@ -1,6 +1,7 @@
 package uruhingore.ua.controller;
 
 import uruhingore.ua.dto.BulletinRequest;
+import uruhingore.ua.service.BulletinRenderService;
 import uruhingore.ua.service.DocumentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -9,6 +10,8 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/documents")
 public class DocumentController {
@@ -16,75 +19,85 @@ public class DocumentController {
     @Autowired
     private DocumentService documentService;
 
+    @Autowired
+    private BulletinRenderService bulletinRenderService;
+
+    @Autowired
+    private BulletinErrorResponses bulletinErrors;
+
     /**
-     * Preview bulletin document
+     * Preview bulletin document. format=json returns the layout model for client-side rendering
+     * instead of rendering the PDF.
      */
     @GetMapping("/preview/bulletin")
-    public ResponseEntity<byte[]> previewBulletin(
+    public CompletableFuture<ResponseEntity<?>> previewBulletin(
             @RequestParam(required = false, defaultValue = "") String studentName,
             @RequestParam(required = false, defaultValue = "") String classe,
-            @RequestParam(required = false, defaultValue = "2025/2026") String annee) {
-
-        try {
-            BulletinRequest request = new BulletinRequest();
-            request.setStudentName(studentName);
-            request.setClasse(classe);
-            request.setAnnee(annee);
-
-            byte[] pdfBytes = documentService.generateBulletinPdf(request);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("inline", "bulletin_" + studentName + ".pdf");
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            @RequestParam(required = false, defaultValue = "2025/2026") String annee,
+            @RequestParam(required = false, defaultValue = "pdf") String format) {
+
+        BulletinRequest request = new BulletinRequest();
+        request.setStudentName(studentName);
+        request.setClasse(classe);
+        request.setAnnee(annee);
+
+        if ("json".equalsIgnoreCase(format)) {
+            try {
+                return CompletableFuture.completedFuture(ResponseEntity.ok(documentService.previewBulletin(request)));
+            } catch (Exception e) {
+                return CompletableFuture.completedFuture(bulletinErrors.of(e));
+            }
         }
+
+        return bulletinRenderService.render(request, false)
+                .handle((pdfBytes, error) -> {
+                    if (error != null) {
+                        return bulletinErrors.of(error);
+                    }
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.setContentType(MediaType.APPLICATION_PDF);
+                    headers.setContentDispositionFormData("inline", "bulletin_" + studentName + ".pdf");
+                    headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+
+                    return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+                });
     }
 
     /**
      * Download bulletin document
      */
     @PostMapping("/download/bulletin")
-    public ResponseEntity<byte[]> downloadBulletin(@RequestBody BulletinRequest request) {
-
-        try {
-            byte[] pdfBytes = documentService.generateBulletinPdf(request);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "bulletin_" + request.getStudentName() + ".pdf");
-
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    public CompletableFuture<ResponseEntity<?>> downloadBulletin(@RequestBody BulletinRequest request) {
+
+        return bulletinRenderService.render(request, false)
+                .handle((pdfBytes, error) -> {
+                    if (error != null) {
+                        return bulletinErrors.of(error);
+                    }
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.setContentType(MediaType.APPLICATION_PDF);
+                    headers.setContentDispositionFormData("attachment", "bulletin_" + request.getStudentName() + ".pdf");
+
+                    return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+                });
     }
 
     /**
      * Generate bulletin with grades
      */
     @PostMapping("/generate/bulletin")
-    public ResponseEntity<byte[]> generateBulletinWithGrades(@RequestBody BulletinRequest request) {
-
-        try {
-            byte[] pdfBytes = documentService.generateBulletinWithGrades(request);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("inline", "bulletin_" + request.getStudentName() + ".pdf");
-
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    public CompletableFuture<ResponseEntity<?>> generateBulletinWithGrades(@RequestBody BulletinRequest request) {
+
+        return bulletinRenderService.render(request, true)
+                .handle((pdfBytes, error) -> {
+                    if (error != null) {
+                        return bulletinErrors.of(error);
+                    }
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.setContentType(MediaType.APPLICATION_PDF);
+                    headers.setContentDispositionFormData("inline", "bulletin_" + request.getStudentName() + ".pdf");
+
+                    return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+                });
     }
-}
\ No newline at end of file
+}
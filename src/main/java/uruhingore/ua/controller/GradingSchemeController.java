@@ -0,0 +1,61 @@
+package uruhingore.ua.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import uruhingore.ua.dto.GradingSchemeRequest;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.model.GradingScheme;
+import uruhingore.ua.service.GradingSchemeService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/head/grading-schemes")
+@RequiredArgsConstructor
+public class GradingSchemeController {
+
+    private final GradingSchemeService gradingSchemeService;
+
+    /**
+     * All versions of the grading scheme of a class level, latest first
+     */
+    @GetMapping("/{classLevel}")
+    public ResponseEntity<List<GradingScheme>> getSchemes(@PathVariable ClassLevel classLevel) {
+        log.info("Received request to get grading schemes of class level: {}", classLevel);
+        return ResponseEntity.ok(gradingSchemeService.getSchemes(classLevel));
+    }
+
+    /**
+     * Save a new version of the grading scheme of a class level; the grade colour of the marks it
+     * applies to is recomputed
+     */
+    @PutMapping("/{classLevel}")
+    public ResponseEntity<?> updateScheme(@PathVariable ClassLevel classLevel,
+                                          @RequestBody GradingSchemeRequest request) {
+        try {
+            log.info("Received request to update grading scheme of class level: {}, effective from: {}",
+                    classLevel, request.getEffectiveFromYear());
+            GradingScheme scheme = gradingSchemeService.updateScheme(classLevel, request.getEffectiveFromYear(),
+                    request.getBands());
+            return ResponseEntity.ok(scheme);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    private ResponseEntity<?> badRequest(IllegalArgumentException e) {
+        log.error("Invalid request: {}", e.getMessage());
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("timestamp", java.time.LocalDateTime.now());
+        errorBody.put("status", HttpStatus.BAD_REQUEST.value());
+        errorBody.put("error", "Bad Request");
+        errorBody.put("message", e.getMessage());
+        return ResponseEntity.badRequest().body(errorBody);
+    }
+}
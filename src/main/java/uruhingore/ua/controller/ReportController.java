@@ -3,27 +3,42 @@ package uruhingore.ua.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import com.itextpdf.text.DocumentException;
-import java.io.IOException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uruhingore.ua.dto.AddBulkMarksRequest;
 import uruhingore.ua.dto.AddMarkRequest;
+import uruhingore.ua.dto.ClassRankingResponse;
 import uruhingore.ua.dto.GroupedReportResponse;
+import uruhingore.ua.dto.MarkImportResponse;
 import uruhingore.ua.dto.ReportResponse;
 import uruhingore.ua.dto.UpdateMarkRequest;
+import uruhingore.ua.model.ClassLevel;
 import uruhingore.ua.model.Report;
 import uruhingore.ua.repository.ReportRepository;
+import uruhingore.ua.model.AcademicData;
+import uruhingore.ua.service.AcademicDataService;
+import uruhingore.ua.service.BulletinRenderService;
 import uruhingore.ua.service.DocumentService;
+import uruhingore.ua.service.ExportService;
+import uruhingore.ua.service.MarkImportService;
+import uruhingore.ua.service.RankingService;
+import uruhingore.ua.service.ReportCardService;
 import uruhingore.ua.service.ReportService;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -33,7 +48,15 @@ public class ReportController {
 
     private final ReportService reportService;
     private final ReportRepository reportRepository;
+    private final BulletinRenderService bulletinRenderService;
     private final DocumentService documentService;
+    private final RankingService rankingService;
+    private final ExportService exportService;
+    private final AcademicDataService academicDataService;
+    private final MarkImportService markImportService;
+    private final ReportCardService reportCardService;
+    private final BulletinErrorResponses bulletinErrors;
+
 
     /**
      * Add or update marks for multiple modules at once
@@ -175,39 +198,40 @@ public class ReportController {
      * Get all published reports for a student and academic data
      */
     @GetMapping("/student/{studentId}/academic-data/{academicDataId}")
-    public ResponseEntity<GroupedReportResponse> getReportsByStudentAndAcademicData(
+    public ResponseEntity<String> getReportsByStudentAndAcademicData(
             @PathVariable UUID studentId,
             @PathVariable UUID academicDataId) {
         log.info("Received request to get published reports for student: {} and academicData: {}", 
                 studentId, academicDataId);
-        List<Report> reports = reportService.getPublishedReportsByStudentAndAcademicData(studentId, academicDataId);
-        GroupedReportResponse groupedResponse = GroupedReportResponse.fromReportsSingle(reports);
-        return ResponseEntity.ok(groupedResponse);
+        // Stored GroupedReportResponse JSON, written as is
+        String reportCard = reportCardService.getReportCard(studentId, academicDataId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(reportCard);
     }
 
     /**
-     * Generate bulletin PDF for a student based on their marks for a given academic data
+     * Export every mark of an academic data as CSV (optionally filtered by class level).
+     * Rows are streamed from a database cursor, so memory use is constant.
      */
-    @GetMapping("/student/{studentId}/academic-data/{academicDataId}/bulletin")
-    public ResponseEntity<?> generateBulletin(
-            @PathVariable UUID studentId,
-            @PathVariable UUID academicDataId) {
+    @GetMapping("/export/academic-data/{academicDataId}")
+    public ResponseEntity<?> exportMarks(
+            @PathVariable UUID academicDataId,
+            @RequestParam(required = false) ClassLevel classLevel) {
         try {
-            log.info("Received request to generate bulletin for student: {} and academicData: {}", 
-                    studentId, academicDataId);
-            
-            // Generate PDF using DocumentService
-            byte[] pdfBytes = documentService.generateBulletinFromAcademicData(studentId, academicDataId);
-            
-            // Set response headers for PDF
+            log.info("Received request to export marks for academicData: {}, classLevel: {}", academicDataId, classLevel);
+            AcademicData academicData = academicDataService.getAcademicDataById(academicDataId);
+
+            String filename = "marks_" + academicData.getAcademicYear() + "_" + academicData.getTrimester().name()
+                    + "_" + academicData.getPeriod().name()
+                    + (classLevel != null ? "_" + classLevel.name() : "") + ".csv";
+
+            StreamingResponseBody body = out -> exportService.exportMarksCsv(academicDataId, classLevel, out);
+
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("inline", "bulletin_" + studentId + "_" + academicDataId + ".pdf");
-            headers.setContentLength(pdfBytes.length);
-            
-            log.info("Bulletin generated successfully for student: {} and academicData: {}", studentId, academicDataId);
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-            
+            headers.setContentType(new MediaType("text", "csv", java.nio.charset.StandardCharsets.UTF_8));
+            headers.setContentDispositionFormData("attachment", filename);
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             log.error("Invalid request: {}", e.getMessage());
             Map<String, Object> errorBody = new HashMap<>();
@@ -216,22 +240,160 @@ public class ReportController {
             errorBody.put("error", "Not Found");
             errorBody.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorBody);
-        } catch (DocumentException | IOException e) {
-            log.error("Error generating bulletin: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Import marks for an academic data from a CSV file (studentCode, module, score[, teacherComment, classLevel])
+     */
+    @PostMapping(value = "/import/academic-data/{academicDataId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importMarks(
+            @PathVariable UUID academicDataId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) UUID teacherId) {
+        try {
+            log.info("Received request to import marks for academicData: {}, file: {} ({} bytes)",
+                    academicDataId, file.getOriginalFilename(), file.getSize());
+            if (file.isEmpty()) {
+                throw new IllegalArgumentException("The uploaded file is empty");
+            }
+            MarkImportResponse result = markImportService.importMarks(academicDataId, teacherId, file.getInputStream());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request: {}", e.getMessage());
             Map<String, Object> errorBody = new HashMap<>();
             errorBody.put("timestamp", java.time.LocalDateTime.now());
-            errorBody.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-            errorBody.put("error", "Internal Server Error");
-            errorBody.put("message", "An error occurred while generating the bulletin: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorBody);
+            errorBody.put("status", HttpStatus.BAD_REQUEST.value());
+            errorBody.put("error", "Bad Request");
+            errorBody.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorBody);
         } catch (Exception e) {
-            log.error("Unexpected error generating bulletin: {}", e.getMessage(), e);
+            log.error("Error importing marks: {}", e.getMessage(), e);
             Map<String, Object> errorBody = new HashMap<>();
             errorBody.put("timestamp", java.time.LocalDateTime.now());
             errorBody.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
             errorBody.put("error", "Internal Server Error");
-            errorBody.put("message", "An unexpected error occurred while generating the bulletin: " + e.getMessage());
+            errorBody.put("message", "An error occurred while importing the marks: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorBody);
         }
     }
+
+    /**
+     * Get the ranking (dense rank and percentile) of a whole class for an academic data
+     */
+    @GetMapping("/ranking/class/{classLevel}/academic-data/{academicDataId}")
+    public ResponseEntity<ClassRankingResponse> getClassRanking(
+            @PathVariable ClassLevel classLevel,
+            @PathVariable UUID academicDataId) {
+        log.info("Received request to get ranking for class: {} and academicData: {}", classLevel, academicDataId);
+        return ResponseEntity.ok(rankingService.getClassRanking(classLevel, academicDataId));
+    }
+
+    /**
+     * Get the rank of a student within their class for an academic data
+     */
+    @GetMapping("/student/{studentId}/academic-data/{academicDataId}/rank")
+    public ResponseEntity<?> getStudentRank(
+            @PathVariable UUID studentId,
+            @PathVariable UUID academicDataId) {
+        log.info("Received request to get rank for student: {} and academicData: {}", studentId, academicDataId);
+        return rankingService.getStudentRank(academicDataId, studentId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    Map<String, Object> errorBody = new HashMap<>();
+                    errorBody.put("timestamp", java.time.LocalDateTime.now());
+                    errorBody.put("status", HttpStatus.NOT_FOUND.value());
+                    errorBody.put("error", "Not Found");
+                    errorBody.put("message", "No marks found for the given student and academic data");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorBody);
+                });
+    }
+
+    /**
+     * Generate bulletin PDF for a student based on their marks for a given academic data.
+     * Rendered on the bounded render pool; answers 503 with Retry-After when it is saturated.
+     */
+    @GetMapping("/student/{studentId}/academic-data/{academicDataId}/bulletin")
+    public CompletableFuture<ResponseEntity<?>> generateBulletin(
+            @PathVariable UUID studentId,
+            @PathVariable UUID academicDataId) {
+        log.info("Received request to generate bulletin for student: {} and academicData: {}", 
+                studentId, academicDataId);
+
+        // Concurrent requests for the same bulletin share one render
+        return bulletinRenderService.renderFromAcademicData(studentId, academicDataId)
+                .handle((pdfBytes, error) -> {
+                    if (error == null) {
+                        log.info("Bulletin generated successfully for student: {} and academicData: {}", studentId, academicDataId);
+                        return pdfResponse(pdfBytes, "bulletin_" + studentId + "_" + academicDataId + ".pdf");
+                    }
+                    return bulletinErrors.of(error);
+                });
+    }
+
+    /**
+     * Layout model (JSON) of the bulletin of a student for an academic data, for previews rendered by
+     * the client: one query and no PDF render
+     */
+    @GetMapping("/student/{studentId}/academic-data/{academicDataId}/bulletin/preview")
+    public ResponseEntity<?> previewBulletin(
+            @PathVariable UUID studentId,
+            @PathVariable UUID academicDataId) {
+        try {
+            return ResponseEntity.ok(documentService.previewBulletinFromAcademicData(studentId, academicDataId));
+        } catch (IllegalArgumentException e) {
+            return bulletinErrors.of(e);
+        }
+    }
+
+    /**
+     * All bulletins of a class for an academic data as one printable PDF (one section per student)
+     */
+    @GetMapping("/class/{classLevel}/academic-data/{academicDataId}/bulletins")
+    public CompletableFuture<ResponseEntity<?>> generateClassBulletins(
+            @PathVariable ClassLevel classLevel,
+            @PathVariable UUID academicDataId) {
+        log.info("Received request to generate class bulletins for class: {} and academicData: {}", classLevel, academicDataId);
+        return bulletinRenderService.renderClass(academicDataId, classLevel)
+                .handle((pdfBytes, error) -> error == null
+                        ? pdfResponse(pdfBytes, "bulletins_" + classLevel.name() + "_" + academicDataId + ".pdf")
+                        : bulletinErrors.of(error));
+    }
+
+    /**
+     * Grid bulletins (all trimesters) of every active student of a class for a year as one printable PDF
+     */
+    @GetMapping("/class/{classLevel}/year/{academicYear}/grid-bulletins")
+    public CompletableFuture<ResponseEntity<?>> generateClassGridBulletins(
+            @PathVariable ClassLevel classLevel,
+            @PathVariable Integer academicYear) {
+        log.info("Received request to generate class grid bulletins for class: {} and year: {}", classLevel, academicYear);
+        return bulletinRenderService.renderClassGrid(classLevel, academicYear)
+                .handle((pdfBytes, error) -> error == null
+                        ? pdfResponse(pdfBytes, "grid_bulletins_" + classLevel.name() + "_" + academicYear + ".pdf")
+                        : bulletinErrors.of(error));
+    }
+
+    /**
+     * PDF with a strong ETag of its bytes. Renders are deterministic, so unchanged marks give the same
+     * ETag and a request with a matching If-None-Match is answered 304 without the body.
+     */
+    private ResponseEntity<?> pdfResponse(byte[] pdfBytes, String fileName) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("inline", fileName);
+        headers.setContentLength(pdfBytes.length);
+        headers.setETag("\"" + sha256Hex(pdfBytes) + "\"");
+        // Bulletins are personal: caches may keep them but must revalidate with the ETag
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package uruhingore.ua.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import uruhingore.ua.service.AnalyticsService;
+import uruhingore.ua.service.ReportPartitionService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/head/report-partitions")
+@RequiredArgsConstructor
+public class ReportPartitionController {
+
+    private final ReportPartitionService reportPartitionService;
+    private final AnalyticsService analyticsService;
+
+    /**
+     * List the yearly partitions of the reports table
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> listPartitions() {
+        log.info("Received request to list report partitions");
+        return ResponseEntity.ok(reportPartitionService.listPartitions());
+    }
+
+    /**
+     * Detach the reports of a past year (optionally moving them to the archive schema)
+     */
+    @PostMapping("/{year}/detach")
+    public ResponseEntity<?> detachPartition(@PathVariable int year,
+                                             @RequestParam(defaultValue = "false") boolean archive) {
+        try {
+            log.info("Received request to detach report partition for year: {}, archive: {}", year, archive);
+            reportPartitionService.detachPartition(year, archive);
+            analyticsService.refreshViews();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Reports of " + year + " detached successfully");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Attach a detached or archived year again
+     */
+    @PostMapping("/{year}/attach")
+    public ResponseEntity<?> attachPartition(@PathVariable int year) {
+        try {
+            log.info("Received request to attach report partition for year: {}", year);
+            reportPartitionService.attachPartition(year);
+            analyticsService.refreshViews();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Reports of " + year + " attached successfully");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    private ResponseEntity<?> badRequest(IllegalArgumentException e) {
+        log.error("Invalid request: {}", e.getMessage());
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("timestamp", java.time.LocalDateTime.now());
+        errorBody.put("status", HttpStatus.BAD_REQUEST.value());
+        errorBody.put("error", "Bad Request");
+        errorBody.put("message", e.getMessage());
+        return ResponseEntity.badRequest().body(errorBody);
+    }
+}
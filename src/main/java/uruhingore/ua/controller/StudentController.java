@@ -11,9 +11,11 @@ import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Validator;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import uruhingore.ua.dto.StudentImportResponse;
 import uruhingore.ua.dto.StudentRequest;
 import uruhingore.ua.dto.StudentResponse;
 import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.service.StudentImportService;
 import uruhingore.ua.service.StudentService;
 
 import java.util.HashMap;
@@ -28,6 +30,7 @@ import java.util.UUID;
 public class StudentController {
     
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
     private final ObjectMapper objectMapper;
     private final Validator validator;
 
@@ -103,6 +106,67 @@ public class StudentController {
         }
     }
     
+    /**
+     * Bulk import students from a JSON array of student requests
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importStudents(@RequestBody List<StudentRequest> requests) {
+        try {
+            log.info("Received request to import {} students", requests.size());
+            StudentImportResponse response = studentImportService.importStudents(requests);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request: {}", e.getMessage());
+            Map<String, Object> errorBody = new HashMap<>();
+            errorBody.put("timestamp", java.time.LocalDateTime.now());
+            errorBody.put("status", HttpStatus.BAD_REQUEST.value());
+            errorBody.put("error", "Bad Request");
+            errorBody.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorBody);
+        } catch (Exception e) {
+            log.error("Error importing students: {}", e.getMessage(), e);
+            Map<String, Object> errorBody = new HashMap<>();
+            errorBody.put("timestamp", java.time.LocalDateTime.now());
+            errorBody.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+            errorBody.put("error", "Internal Server Error");
+            errorBody.put("message", "An error occurred while importing the students: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorBody);
+        }
+    }
+
+    /**
+     * Bulk import students from a CSV file
+     * Columns: firstName, lastName, dateOfBirth, gender, classLevel, academicYear, status, parentIds, moduleIds
+     * (several ids in one cell are separated by ';')
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importStudentsCsv(@RequestParam("file") MultipartFile file) {
+        try {
+            log.info("Received request to import students from file: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+            if (file.isEmpty()) {
+                throw new IllegalArgumentException("The uploaded file is empty");
+            }
+            StudentImportResponse response = studentImportService.importStudentsCsv(file.getInputStream());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request: {}", e.getMessage());
+            Map<String, Object> errorBody = new HashMap<>();
+            errorBody.put("timestamp", java.time.LocalDateTime.now());
+            errorBody.put("status", HttpStatus.BAD_REQUEST.value());
+            errorBody.put("error", "Bad Request");
+            errorBody.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorBody);
+        } catch (Exception e) {
+            log.error("Error importing students: {}", e.getMessage(), e);
+            Map<String, Object> errorBody = new HashMap<>();
+            errorBody.put("timestamp", java.time.LocalDateTime.now());
+            errorBody.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+            errorBody.put("error", "Internal Server Error");
+            errorBody.put("message", "An error occurred while importing the students: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorBody);
+        }
+    }
+    
     /**
      * Get all students
      */
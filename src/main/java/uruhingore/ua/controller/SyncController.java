@@ -0,0 +1,47 @@
+package uruhingore.ua.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import uruhingore.ua.model.Users;
+import uruhingore.ua.service.SyncService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    /**
+     * Changes of the authenticated parent's children since the token of the previous sync;
+     * without a token everything visible is returned
+     */
+    @GetMapping
+    public ResponseEntity<?> sync(@AuthenticationPrincipal Users user,
+                                  @RequestParam(required = false) String since) {
+        if (user == null || !user.isParent()) {
+            log.warn("Sync refused: not a parent");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            log.info("Received sync request for parent: {} since: {}", user.getId(), since);
+            return ResponseEntity.ok(syncService.sync(user.getId(), since));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request: {}", e.getMessage());
+            Map<String, Object> errorBody = new HashMap<>();
+            errorBody.put("timestamp", java.time.LocalDateTime.now());
+            errorBody.put("status", HttpStatus.BAD_REQUEST.value());
+            errorBody.put("error", "Bad Request");
+            errorBody.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorBody);
+        }
+    }
+}
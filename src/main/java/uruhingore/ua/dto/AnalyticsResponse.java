@@ -0,0 +1,82 @@
+package uruhingore.ua.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.model.Period;
+import uruhingore.ua.model.Trimester;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Response types for the head-teacher analytics dashboard
+ */
+public class AnalyticsResponse {
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ModuleStats {
+        private UUID academicDataId;
+        private ClassLevel classLevel;
+        private UUID moduleId;
+        private String moduleName;
+        private String moduleCategory;
+        private long markCount;
+        private double averageScore;
+        private int minScore;
+        private int maxScore;
+        private double standardDeviation;
+        private double passRate;
+        private Map<String, Long> gradeColorCounts;
+        private Map<String, Double> gradeColorRates;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ClassStats {
+        private UUID academicDataId;
+        private Integer academicYear;
+        private Trimester trimester;
+        private Period period;
+        private ClassLevel classLevel;
+        private long studentCount;
+        private long markCount;
+        private double averageScore;
+        private double passRate;
+        private Map<String, Long> gradeColorCounts;
+        private Map<String, Double> gradeColorRates;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ScoreBucket {
+        private int fromScore;
+        private int toScore;
+        private long markCount;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TrimesterTrend {
+        private ClassLevel classLevel;
+        private Integer academicYear;
+        private Trimester trimester;
+        private long studentCount;
+        private long markCount;
+        private double averageScore;
+        private double passRate;
+        private Double averageScoreChange; // vs previous trimester, null for the first one
+        private Double passRateChange;
+    }
+}
@@ -0,0 +1,51 @@
+package uruhingore.ua.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Layout model of a bulletin for client-side rendering: the texts, rows and colours of the PDF
+ * without the PDF itself
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulletinPreviewResponse {
+
+    private UUID studentId;
+    private String studentName;
+    private String classe;
+    private String annee;
+    private String title;
+    private Integer rank;
+    private Integer classSize;
+    private String comment;
+    private List<Row> rows;
+    private List<GradeBand> gradingSystem;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        private String domain;
+        private String subject;
+        private Number score; // integer for module marks, decimal for legacy grades
+        private String color; // #RRGGBB of the score cell, null when there is no score
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GradeBand {
+        private String range;
+        private String color;
+    }
+}
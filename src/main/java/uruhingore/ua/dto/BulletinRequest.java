@@ -1,6 +1,7 @@
 package uruhingore.ua.dto;
 
 import lombok.*;
+import uruhingore.ua.model.ClassLevel;
 
 import java.util.List;
 import java.util.Map;
@@ -17,6 +18,14 @@ public class BulletinRequest {
     private String annee;
     private String trimester;
     private String comment;
+
+    // Select the grading scheme (the default one when absent); classe and annee are only displayed
+    private ClassLevel classLevel;
+    private Integer academicYear;
+    
+    // Class ranking (optional)
+    private Integer rank;
+    private Integer classSize;
     
     // For backward compatibility
     private Map<String, SubjectGrade> grades;
@@ -0,0 +1,38 @@
+package uruhingore.ua.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uruhingore.ua.model.ClassLevel;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassRankingResponse {
+
+    private ClassLevel classLevel;
+    private UUID academicDataId;
+    private int classSize;
+    private List<StudentRank> rankings;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StudentRank {
+        private UUID studentId;
+        private String studentCode;
+        private String fullName;
+        private int moduleCount;
+        private int totalScore;
+        private double averageScore;
+        private int rank; // dense rank, 1 = best
+        private int classSize;
+        private double percentile; // % of the class scoring at or below this student
+    }
+}
@@ -0,0 +1,18 @@
+package uruhingore.ua.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uruhingore.ua.model.GradingScheme;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingSchemeRequest {
+    private Integer effectiveFromYear; // Optional - applies to every year when null
+    private List<GradingScheme.Band> bands; // minScore + gradeColor (green, blue, yellow, red), covering 0-100
+}
@@ -0,0 +1,34 @@
+package uruhingore.ua.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarkImportResponse {
+    private UUID academicDataId;
+    private int totalRows;
+    private int inserted;
+    private int updated;
+    private int failed;
+    private long durationMs;
+    private List<RowError> errors;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int line; // Line in the uploaded file (header is line 1)
+        private String studentCode;
+        private String module;
+        private String message;
+    }
+}
@@ -0,0 +1,21 @@
+package uruhingore.ua.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublishNotification {
+    private UUID academicDataId;
+    private String trimester;
+    private Integer academicYear;
+    private String period;
+    private List<UUID> studentIds; // The parent's children with published marks in the academic data
+}
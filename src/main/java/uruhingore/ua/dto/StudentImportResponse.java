@@ -0,0 +1,45 @@
+package uruhingore.ua.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentImportResponse {
+    private int totalRows;
+    private int created;
+    private int failed;
+    private long durationMs;
+    private List<CreatedStudent> students;
+    private List<RowError> errors;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CreatedStudent {
+        private int row; // Position in the JSON array or line in the CSV file
+        private UUID studentId;
+        private String studentCode;
+        private String firstName;
+        private String lastName;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String firstName;
+        private String lastName;
+        private String message;
+    }
+}
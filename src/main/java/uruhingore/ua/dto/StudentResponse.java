@@ -65,19 +65,8 @@ public class StudentResponse {
     }
     
     public static StudentResponse fromStudent(Student student) {
-        return StudentResponse.builder()
-                .id(student.getId())
-                .studentCode(student.getStudentCode())
-                .firstName(student.getFirstName())
-                .lastName(student.getLastName())
-                .fullName(student.getFirstName() + " " + student.getLastName())
-                .dateOfBirth(student.getDateOfBirth())
-                .gender(student.getGender())
-                .profilePhoto(student.getProfilePhoto())
-                .classLevel(student.getClassLevel())
-                .academicYear(student.getAcademicYear())
-                .status(student.getStatus())
-                .parents(student.getParents() != null ? student.getParents().stream()
+        return fromStudent(student,
+                student.getParents() != null ? student.getParents().stream()
                         .map(parent -> ParentInfo.builder()
                                 .id(parent.getId())
                                 .fullName(parent.getFullName())
@@ -87,14 +76,34 @@ public class StudentResponse {
                                 .gender(parent.getGender())
                                 .status(parent.isEnabled())
                                 .build())
-                        .collect(Collectors.toSet()) : Set.of())
-                .modules(student.getModules() != null ? student.getModules().stream()
+                        .collect(Collectors.toSet()) : Set.of(),
+                student.getModules() != null ? student.getModules().stream()
                         .map(module -> ModuleInfo.builder()
                                 .id(module.getId())
                                 .name(module.getName())
                                 .category(module.getCategory())
                                 .build())
-                        .collect(Collectors.toSet()) : Set.of())
+                        .collect(Collectors.toSet()) : Set.of());
+    }
+
+    /**
+     * Build the response with parents and modules loaded separately (the collections of student are not touched)
+     */
+    public static StudentResponse fromStudent(Student student, Set<ParentInfo> parents, Set<ModuleInfo> modules) {
+        return StudentResponse.builder()
+                .id(student.getId())
+                .studentCode(student.getStudentCode())
+                .firstName(student.getFirstName())
+                .lastName(student.getLastName())
+                .fullName(student.getFirstName() + " " + student.getLastName())
+                .dateOfBirth(student.getDateOfBirth())
+                .gender(student.getGender())
+                .profilePhoto(student.getProfilePhoto())
+                .classLevel(student.getClassLevel())
+                .academicYear(student.getAcademicYear())
+                .status(student.getStatus())
+                .parents(parents)
+                .modules(modules)
                 .createdAt(student.getCreatedAt())
                 .updatedAt(student.getUpdatedAt())
                 .build();
@@ -0,0 +1,41 @@
+package uruhingore.ua.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uruhingore.ua.model.AcademicData;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+
+    private String token; // Pass as "since" on the next sync
+    // true when everything visible is returned (no token, token older than the tombstones kept, or a
+    // child linked since): the client replaces what it has
+    private boolean full;
+
+    // Rows created or changed since the token (published academic data and reports only)
+    private List<AcademicData> academicData;
+    private List<StudentResponse> students;
+    private List<ReportResponse> reports;
+
+    // Rows deleted, unpublished or no longer synced since the token (students: also children unlinked
+    // from the parent, whose reports go with them)
+    private Removed removed;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Removed {
+        private List<UUID> academicData;
+        private List<UUID> students;
+        private List<UUID> reports;
+    }
+}
@@ -0,0 +1,16 @@
+package uruhingore.ua.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Published when an AcademicData becomes visible to students/parents
+ */
+@Getter
+@AllArgsConstructor
+public class AcademicDataPublishedEvent {
+
+    private final UUID academicDataId;
+}
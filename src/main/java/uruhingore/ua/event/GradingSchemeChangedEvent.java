@@ -0,0 +1,17 @@
+package uruhingore.ua.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import uruhingore.ua.model.ClassLevel;
+
+/**
+ * Published when a new grading scheme version is saved and the grade colours of its reports recomputed
+ */
+@Getter
+@AllArgsConstructor
+public class GradingSchemeChangedEvent {
+
+    private final ClassLevel classLevel;
+    private final int version;
+    private final int recomputedReports;
+}
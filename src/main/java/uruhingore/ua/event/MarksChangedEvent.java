@@ -0,0 +1,18 @@
+package uruhingore.ua.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published whenever marks for an AcademicData are added, updated or deleted
+ */
+@Getter
+@AllArgsConstructor
+public class MarksChangedEvent {
+
+    private final UUID academicDataId;
+    private final Set<UUID> studentIds;
+}
@@ -2,10 +2,14 @@ package uruhingore.ua.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "academic_data", uniqueConstraints = {
     @UniqueConstraint(name = "uk_trimester_year_period", columnNames = {"trimester", "academic_year", "period"})
 })
@@ -17,7 +21,7 @@ import java.util.UUID;
 public class AcademicData {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(updatable = false, nullable = false)
     private UUID id;
 
@@ -0,0 +1,70 @@
+package uruhingore.ua.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One version of the grading scheme of a class level. Versions are never modified: a change inserts
+ * the next version, so the colours of past marks can always be explained.
+ */
+@Entity
+@Table(name = "grading_schemes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_grading_scheme_version", columnNames = {"class_level", "version"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradingScheme {
+
+    @Id
+    @TimeOrderedUuid
+    @Column(updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "class_level", nullable = false, length = 50)
+    private ClassLevel classLevel;
+
+    @Column(nullable = false)
+    private Integer version;
+
+    // First academic year the scheme applies to; null = every year
+    @Column(name = "effective_from_year")
+    private Integer effectiveFromYear;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "grading_scheme_bands", joinColumns = @JoinColumn(name = "scheme_id"))
+    @OrderBy("minScore DESC")
+    @Builder.Default
+    private List<Band> bands = new ArrayList<>();
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Scores from minScore up to the next band's minScore - 1 get gradeColor
+     */
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Band {
+
+        @Column(name = "min_score", nullable = false)
+        private Integer minScore;
+
+        @Column(name = "grade_color", nullable = false, length = 20)
+        private String gradeColor;
+    }
+}
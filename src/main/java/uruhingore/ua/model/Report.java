@@ -7,6 +7,14 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "reports")
+// Everything a ReportResponse / bulletin needs, loaded with the report in one query
+@NamedEntityGraph(name = Report.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("student"),
+        @NamedAttributeNode("module"),
+        @NamedAttributeNode("academicData"),
+        @NamedAttributeNode("teacher"),
+        @NamedAttributeNode("approvedBy")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,22 +22,33 @@ import java.util.UUID;
 @Builder
 public class Report {
 
+    public static final String DETAIL_GRAPH = "Report.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", nullable = false)
     private Student student;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "module_id", nullable = false)
     private Module module;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "academic_data_id", nullable = false)
     private AcademicData academicData;
 
+    // Copy of academicData.academicYear; reports is partitioned on this column
+    @Column(name = "academic_year", nullable = false)
+    private Integer academicYear;
+
+    // Copy of academicData.published, so published reports are read without joining academic_data
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean published = false;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 50)
     private ClassLevel classLevel; // Student's class level
@@ -40,14 +59,24 @@ public class Report {
     @Column(length = 500)
     private String teacherComment;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "teacher_id")
     private Users teacher;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "approved_by")
     private Users approvedBy; // Head approval
 
     @Builder.Default
     private LocalDate dateRecorded = LocalDate.now();
+
+    // Writers hold the academic data FOR SHARE (ReportService.lockForShare), so published is the committed flag
+    @PrePersist
+    @PreUpdate
+    protected void syncAcademicData() {
+        if (academicData != null) {
+            academicYear = academicData.getAcademicYear();
+            published = Boolean.TRUE.equals(academicData.getPublished());
+        }
+    }
 }
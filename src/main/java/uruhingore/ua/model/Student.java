@@ -13,6 +13,11 @@ import java.util.UUID;
         @Index(name = "idx_student_code", columnList = "studentCode"),
         @Index(name = "idx_class_level", columnList = "classLevel")
 })
+// Everything a StudentResponse needs
+@NamedEntityGraph(name = Student.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("parents"),
+        @NamedAttributeNode("modules")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,8 +25,10 @@ import java.util.UUID;
 @Builder
 public class Student {
 
+    public static final String DETAIL_GRAPH = "Student.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(updatable = false, nullable = false)
     private UUID id;
 
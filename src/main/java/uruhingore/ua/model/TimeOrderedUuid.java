@@ -0,0 +1,19 @@
+package uruhingore.ua.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate the identifier as a time-ordered UUIDv7 (see {@link uruhingore.ua.util.UuidV7}).
+ * Rows created before this generator keep their random v4 keys; both versions share the
+ * uuid column type, so no re-keying is needed and new rows simply append to the index.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
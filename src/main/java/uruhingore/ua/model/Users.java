@@ -27,7 +27,7 @@ import java.util.UUID;
 public class Users implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(updatable = false, nullable = false)
     private UUID id;
 
@@ -1,7 +1,10 @@
 package uruhingore.ua.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import uruhingore.ua.model.AcademicData;
 import uruhingore.ua.model.Period;
@@ -14,12 +17,15 @@ import java.util.UUID;
 @Repository
 public interface AcademicDataRepository extends JpaRepository<AcademicData, UUID> {
 
+    // Query results are cached (second-level query cache), invalidated on any write to academic_data
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<AcademicData> findByTrimesterAndAcademicYearAndPeriod(
             Trimester trimester, 
             Integer academicYear, 
             Period period
     );
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<AcademicData> findByPublishedTrue();
 
     List<AcademicData> findByPublishedFalse();
@@ -30,15 +36,18 @@ public interface AcademicDataRepository extends JpaRepository<AcademicData, UUID
 
     List<AcademicData> findByPeriodAndAcademicYear(Period period, Integer academicYear);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT ad FROM AcademicData ad WHERE ad.published = true ORDER BY ad.academicYear DESC, ad.trimester, ad.period")
     List<AcademicData> findAllPublishedOrdered();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT ad FROM AcademicData ad ORDER BY ad.createdAt DESC")
     List<AcademicData> findAllOrderByCreatedAtDesc();
 
     @Query("SELECT ad FROM AcademicData ad ORDER BY ad.createdAt ASC")
     List<AcademicData> findAllOrderByCreatedAtAsc();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT ad FROM AcademicData ad WHERE ad.published = false ORDER BY ad.createdAt DESC")
     List<AcademicData> findAllUnpublishedOrderByCreatedAtDesc();
 }
@@ -0,0 +1,18 @@
+package uruhingore.ua.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.model.GradingScheme;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface GradingSchemeRepository extends JpaRepository<GradingScheme, UUID> {
+
+    List<GradingScheme> findByClassLevelOrderByVersionDesc(ClassLevel classLevel);
+
+    Optional<GradingScheme> findFirstByClassLevelOrderByVersionDesc(ClassLevel classLevel);
+}
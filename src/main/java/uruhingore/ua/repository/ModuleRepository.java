@@ -1,6 +1,9 @@
 package uruhingore.ua.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import uruhingore.ua.model.Module;
 
@@ -10,7 +13,10 @@ import java.util.UUID;
 @Repository
 public interface ModuleRepository extends JpaRepository<Module, UUID> {
     
+    // Query results are cached (second-level query cache), invalidated on any write to modules
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Module> findByActiveOrderByIndexOrder(boolean active);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Module> findByNameAndActive(String name, boolean active);
 }
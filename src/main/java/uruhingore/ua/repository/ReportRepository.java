@@ -1,30 +1,47 @@
 package uruhingore.ua.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uruhingore.ua.model.AcademicData;
+import uruhingore.ua.model.ClassLevel;
 import uruhingore.ua.model.Period;
 import uruhingore.ua.model.Report;
 import uruhingore.ua.model.Trimester;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ReportRepository extends JpaRepository<Report, UUID> {
 
+    // Report with its student, module, academic data, teacher and approver
+    @EntityGraph(Report.DETAIL_GRAPH)
+    Optional<Report> findDetailById(UUID id);
+
+    // Reports changed since a sync token
+    @EntityGraph(Report.DETAIL_GRAPH)
+    List<Report> findDetailByIdIn(Collection<UUID> ids);
+
+    // Published finders test the copy of academicData.published on the report: no join needed to filter
+
     // Find all reports for a student (only published)
-    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicData.published = true")
+    @EntityGraph(Report.DETAIL_GRAPH)
+    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.published = true")
     List<Report> findPublishedByStudentId(@Param("studentId") UUID studentId);
 
     // Find reports by student and academic data (only published)
-    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicData.id = :academicDataId AND r.academicData.published = true ORDER BY r.module.indexOrder")
+    @EntityGraph(Report.DETAIL_GRAPH)
+    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicData.id = :academicDataId AND r.published = true ORDER BY r.module.indexOrder")
     List<Report> findPublishedByStudentIdAndAcademicDataId(@Param("studentId") UUID studentId, @Param("academicDataId") UUID academicDataId);
 
     // Find reports by student, trimester, and year (only published)
-    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicData.trimester = :trimester AND r.academicData.academicYear = :academicYear AND r.academicData.published = true")
+    @EntityGraph(Report.DETAIL_GRAPH)
+    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicData.trimester = :trimester AND r.academicYear = :academicYear AND r.published = true")
     List<Report> findPublishedByStudentIdAndTrimesterAndAcademicYear(
             @Param("studentId") UUID studentId,
             @Param("trimester") Trimester trimester,
@@ -32,7 +49,8 @@ public interface ReportRepository extends JpaRepository<Report, UUID> {
     );
 
     // Find reports for bulletin (only published)
-    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicData.trimester = :trimester AND r.academicData.academicYear = :academicYear AND r.academicData.published = true ORDER BY r.module.indexOrder")
+    @EntityGraph(Report.DETAIL_GRAPH)
+    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicData.trimester = :trimester AND r.academicYear = :academicYear AND r.published = true ORDER BY r.module.indexOrder")
     List<Report> findPublishedReportsForBulletin(
             @Param("studentId") UUID studentId,
             @Param("trimester") Trimester trimester,
@@ -40,10 +58,33 @@ public interface ReportRepository extends JpaRepository<Report, UUID> {
     );
 
     // Find reports by student and year (only published)
-    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicData.academicYear = :academicYear AND r.academicData.published = true")
+    @EntityGraph(Report.DETAIL_GRAPH)
+    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicYear = :academicYear AND r.published = true")
     List<Report> findPublishedByStudentIdAndAcademicYear(@Param("studentId") UUID studentId, @Param("academicYear") Integer academicYear);
 
+    // Published reports of a whole class for one academic data, grouped by student (class bulletins)
+    @EntityGraph(Report.DETAIL_GRAPH)
+    @Query("SELECT r FROM Report r WHERE r.academicData.id = :academicDataId AND r.classLevel = :classLevel AND r.published = true ORDER BY r.student.lastName, r.student.firstName, r.student.id, r.module.indexOrder")
+    List<Report> findPublishedByAcademicDataIdAndClassLevel(
+            @Param("academicDataId") UUID academicDataId,
+            @Param("classLevel") ClassLevel classLevel
+    );
+
+    // Published reports of an academic data, grouped by student (report cards)
+    @EntityGraph(Report.DETAIL_GRAPH)
+    @Query("SELECT r FROM Report r WHERE r.academicData.id = :academicDataId AND r.published = true ORDER BY r.student.id, r.module.indexOrder")
+    List<Report> findPublishedByAcademicDataId(@Param("academicDataId") UUID academicDataId);
+
+    // Published reports of a whole class for a year (class grid bulletins)
+    @EntityGraph(Report.DETAIL_GRAPH)
+    @Query("SELECT r FROM Report r WHERE r.classLevel = :classLevel AND r.academicYear = :academicYear AND r.published = true")
+    List<Report> findPublishedByClassLevelAndAcademicYear(
+            @Param("classLevel") ClassLevel classLevel,
+            @Param("academicYear") Integer academicYear
+    );
+
     // Check if report already exists for student, module, and academic data
+    @EntityGraph(Report.DETAIL_GRAPH)
     @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.module.id = :moduleId AND r.academicData.id = :academicDataId")
     List<Report> findByStudentAndModuleAndAcademicData(
             @Param("studentId") UUID studentId,
@@ -52,16 +93,19 @@ public interface ReportRepository extends JpaRepository<Report, UUID> {
     );
 
     // Admin/Teacher methods (all reports, including unpublished)
+    @EntityGraph(Report.DETAIL_GRAPH)
     @Query("SELECT r FROM Report r WHERE r.student.id = :studentId")
     List<Report> findAllByStudentId(@Param("studentId") UUID studentId);
 
-    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicData.trimester = :trimester AND r.academicData.academicYear = :academicYear")
+    @EntityGraph(Report.DETAIL_GRAPH)
+    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicData.trimester = :trimester AND r.academicYear = :academicYear")
     List<Report> findAllByStudentIdAndTrimesterAndAcademicYear(
             @Param("studentId") UUID studentId,
             @Param("trimester") Trimester trimester,
             @Param("academicYear") Integer academicYear
     );
 
-    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicData.academicYear = :academicYear")
+    @EntityGraph(Report.DETAIL_GRAPH)
+    @Query("SELECT r FROM Report r WHERE r.student.id = :studentId AND r.academicYear = :academicYear")
     List<Report> findAllByStudentIdAndAcademicYear(@Param("studentId") UUID studentId, @Param("academicYear") Integer academicYear);
 }
@@ -1,5 +1,6 @@
 package uruhingore.ua.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -7,6 +8,7 @@ import org.springframework.stereotype.Repository;
 import uruhingore.ua.model.ClassLevel;
 import uruhingore.ua.model.Student;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,7 +17,22 @@ import java.util.UUID;
 public interface StudentRepository extends JpaRepository<Student, UUID> {
     
     Optional<Student> findByStudentCode(String studentCode);
-    
+
+    // Student with parents and modules, for StudentResponse
+    @EntityGraph(Student.DETAIL_GRAPH)
+    Optional<Student> findDetailById(UUID id);
+
+    // Students changed since a sync token
+    @EntityGraph(Student.DETAIL_GRAPH)
+    List<Student> findDetailByIdIn(Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = "parents")
+    Optional<Student> findWithParentsById(UUID id);
+
+    // Enrollment checks when recording marks
+    @EntityGraph(attributePaths = "modules")
+    Optional<Student> findWithModulesById(UUID id);
+
     List<Student> findByClassLevel(ClassLevel classLevel);
     
     List<Student> findByAcademicYear(String academicYear);
@@ -32,4 +49,39 @@ public interface StudentRepository extends JpaRepository<Student, UUID> {
     );
     
     boolean existsByStudentCode(String studentCode);
+
+    // Parent and module links of a page of students, used to assemble StudentResponse lists
+
+    @Query("""
+            SELECT s.id AS studentId, p.id AS id, p.fullName AS fullName, p.phone AS phone, p.email AS email,
+                   p.address AS address, p.gender AS gender, p.enabled AS enabled
+            FROM Student s JOIN s.parents p
+            WHERE s.id IN :studentIds
+            """)
+    List<ParentLink> findParentLinks(@Param("studentIds") Collection<UUID> studentIds);
+
+    @Query("""
+            SELECT s.id AS studentId, m.id AS id, m.name AS name, m.category AS category
+            FROM Student s JOIN s.modules m
+            WHERE s.id IN :studentIds
+            """)
+    List<ModuleLink> findModuleLinks(@Param("studentIds") Collection<UUID> studentIds);
+
+    interface ParentLink {
+        UUID getStudentId();
+        UUID getId();
+        String getFullName();
+        String getPhone();
+        String getEmail();
+        String getAddress();
+        String getGender();
+        boolean isEnabled();
+    }
+
+    interface ModuleLink {
+        UUID getStudentId();
+        UUID getId();
+        String getName();
+        String getCategory();
+    }
 }
@@ -1,16 +1,23 @@
 package uruhingore.ua.repository;
 
 import jakarta.validation.constraints.Pattern;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import uruhingore.ua.model.Users;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<Users, UUID> {
+    @EntityGraph(attributePaths = "roles")
     Optional<Users> findByPhone(String phone);
+
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    List<Users> findAll();
     
     Optional<Users> findByEmail(String email);
 
@@ -2,9 +2,12 @@ package uruhingore.ua.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uruhingore.ua.dto.AcademicDataRequest;
+import uruhingore.ua.event.AcademicDataPublishedEvent;
 import uruhingore.ua.model.AcademicData;
 import uruhingore.ua.model.Period;
 import uruhingore.ua.model.Trimester;
@@ -19,7 +22,16 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AcademicDataService {
 
+    // Copies the visibility of an academic data onto its reports, in its partition, only rows that change
+    private static final String SYNC_PUBLISHED_SQL = """
+            UPDATE reports SET published = ?
+            WHERE academic_data_id = ? AND academic_year = ? AND published <> ?
+            """;
+
     private final AcademicDataRepository academicDataRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReportPartitionService reportPartitionService;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Create or get existing AcademicData
@@ -43,6 +55,7 @@ public class AcademicDataService {
                 .published(false)
                 .build();
         
+        reportPartitionService.ensurePartition(academicYear);
         AcademicData saved = academicDataRepository.save(academicData);
         log.info("Created new AcademicData with ID: {}", saved.getId());
         return saved;
@@ -108,6 +121,7 @@ public class AcademicDataService {
                 .published(request.getPublished() != null ? request.getPublished() : false)
                 .build();
         
+        reportPartitionService.ensurePartition(request.getAcademicYear());
         AcademicData saved = academicDataRepository.save(academicData);
         log.info("Created new AcademicData with ID: {}", saved.getId());
         return saved;
@@ -133,15 +147,27 @@ public class AcademicDataService {
                     ", Year=" + request.getAcademicYear() + ", Period=" + request.getPeriod());
         }
         
+        Integer previousYear = academicData.getAcademicYear();
         academicData.setTrimester(request.getTrimester());
         academicData.setAcademicYear(request.getAcademicYear());
         academicData.setPeriod(request.getPeriod());
         
+        boolean wasPublished = Boolean.TRUE.equals(academicData.getPublished());
         if (request.getPublished() != null) {
             academicData.setPublished(request.getPublished());
         }
         
         AcademicData saved = academicDataRepository.save(academicData);
+        if (!previousYear.equals(saved.getAcademicYear())) {
+            // The reports carry the year as their partition key
+            reportPartitionService.moveAcademicData(saved.getId(), saved.getAcademicYear());
+        }
+        if (wasPublished != Boolean.TRUE.equals(saved.getPublished())) {
+            syncReportVisibility(saved);
+        }
+        if (!wasPublished && Boolean.TRUE.equals(saved.getPublished())) {
+            eventPublisher.publishEvent(new AcademicDataPublishedEvent(saved.getId()));
+        }
         log.info("Updated AcademicData with ID: {}", id);
         return saved;
     }
@@ -172,6 +198,8 @@ public class AcademicDataService {
         
         academicData.setPublished(true);
         AcademicData saved = academicDataRepository.save(academicData);
+        syncReportVisibility(saved);
+        eventPublisher.publishEvent(new AcademicDataPublishedEvent(saved.getId()));
         log.info("AcademicData published successfully: {}", id);
         return saved;
     }
@@ -187,10 +215,24 @@ public class AcademicDataService {
         
         academicData.setPublished(false);
         AcademicData saved = academicDataRepository.save(academicData);
+        syncReportVisibility(saved);
         log.info("AcademicData unpublished successfully: {}", id);
         return saved;
     }
 
+    /**
+     * Set the published flag of all reports of an academic data in one statement
+     */
+    private void syncReportVisibility(AcademicData academicData) {
+        // Mark writers read the row FOR SHARE: lock it before touching the reports so that a writer either
+        // committed before (its reports are updated below) or waits and sees the new flag
+        jdbcTemplate.queryForList("SELECT id FROM academic_data WHERE id = ? FOR UPDATE", academicData.getId());
+        boolean published = Boolean.TRUE.equals(academicData.getPublished());
+        int updated = jdbcTemplate.update(SYNC_PUBLISHED_SQL, published, academicData.getId(),
+                academicData.getAcademicYear(), published);
+        log.info("Set published={} on {} reports of AcademicData {}", published, updated, academicData.getId());
+    }
+
     /**
      * Get AcademicData by trimester, year, and period
      */
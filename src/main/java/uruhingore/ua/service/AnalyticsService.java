@@ -0,0 +1,235 @@
+package uruhingore.ua.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uruhingore.ua.dto.AnalyticsResponse;
+import uruhingore.ua.event.AcademicDataPublishedEvent;
+import uruhingore.ua.event.GradingSchemeChangedEvent;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.model.Period;
+import uruhingore.ua.model.Trimester;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Head-teacher analytics served from materialized views (see db/migration).
+ * The views are refreshed concurrently whenever an AcademicData is published,
+ * so dashboard reads never scan the live reports table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    private static final List<String> MATERIALIZED_VIEWS = List.of(
+            "mv_module_score_stats",
+            "mv_module_score_histogram",
+            "mv_class_score_stats",
+            "mv_trimester_trends"
+    );
+
+    private static final String[] GRADE_COLORS = {"green", "blue", "yellow", "red"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Per-module statistics for an academic data, optionally restricted to one class level
+     */
+    @Transactional(readOnly = true)
+    public List<AnalyticsResponse.ModuleStats> getModuleStats(UUID academicDataId, ClassLevel classLevel) {
+        String sql = "SELECT * FROM mv_module_score_stats WHERE academic_data_id = ?"
+                + (classLevel != null ? " AND class_level = ?" : "")
+                + " ORDER BY class_level, module_name";
+        Object[] args = classLevel != null
+                ? new Object[] { academicDataId, classLevel.name() }
+                : new Object[] { academicDataId };
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            long markCount = rs.getLong("mark_count");
+            Map<String, Long> counts = gradeColorCounts(rs);
+            return AnalyticsResponse.ModuleStats.builder()
+                    .academicDataId(rs.getObject("academic_data_id", UUID.class))
+                    .classLevel(ClassLevel.valueOf(rs.getString("class_level")))
+                    .moduleId(rs.getObject("module_id", UUID.class))
+                    .moduleName(rs.getString("module_name"))
+                    .moduleCategory(rs.getString("module_category"))
+                    .markCount(markCount)
+                    .averageScore(rs.getDouble("avg_score"))
+                    .minScore(rs.getInt("min_score"))
+                    .maxScore(rs.getInt("max_score"))
+                    .standardDeviation(rs.getDouble("stddev_score"))
+                    .passRate(rate(rs.getLong("pass_count"), markCount))
+                    .gradeColorCounts(counts)
+                    .gradeColorRates(gradeColorRates(counts, markCount))
+                    .build();
+        }, args);
+    }
+
+    /**
+     * Score histogram of one module for an academic data and class level
+     */
+    @Transactional(readOnly = true)
+    public List<AnalyticsResponse.ScoreBucket> getModuleDistribution(UUID academicDataId, ClassLevel classLevel, UUID moduleId) {
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT bucket, mark_count FROM mv_module_score_histogram "
+                        + "WHERE academic_data_id = ? AND class_level = ? AND module_id = ?",
+                rs -> {
+                    counts.put(rs.getInt("bucket"), rs.getLong("mark_count"));
+                },
+                academicDataId, classLevel.name(), moduleId);
+
+        List<AnalyticsResponse.ScoreBucket> buckets = new ArrayList<>(10);
+        for (int bucket = 0; bucket < 10; bucket++) {
+            buckets.add(AnalyticsResponse.ScoreBucket.builder()
+                    .fromScore(bucket * 10)
+                    .toScore(bucket == 9 ? 100 : bucket * 10 + 9)
+                    .markCount(counts.getOrDefault(bucket, 0L))
+                    .build());
+        }
+        return buckets;
+    }
+
+    /**
+     * Per-class statistics (pass rates by grade colour) for an academic data
+     */
+    @Transactional(readOnly = true)
+    public List<AnalyticsResponse.ClassStats> getClassStats(UUID academicDataId) {
+        return jdbcTemplate.query(
+                "SELECT * FROM mv_class_score_stats WHERE academic_data_id = ? ORDER BY class_level",
+                (rs, rowNum) -> {
+                    long markCount = rs.getLong("mark_count");
+                    Map<String, Long> counts = gradeColorCounts(rs);
+                    return AnalyticsResponse.ClassStats.builder()
+                            .academicDataId(rs.getObject("academic_data_id", UUID.class))
+                            .academicYear(rs.getInt("academic_year"))
+                            .trimester(Trimester.valueOf(rs.getString("trimester")))
+                            .period(Period.valueOf(rs.getString("period")))
+                            .classLevel(ClassLevel.valueOf(rs.getString("class_level")))
+                            .studentCount(rs.getLong("student_count"))
+                            .markCount(markCount)
+                            .averageScore(rs.getDouble("avg_score"))
+                            .passRate(rate(rs.getLong("pass_count"), markCount))
+                            .gradeColorCounts(counts)
+                            .gradeColorRates(gradeColorRates(counts, markCount))
+                            .build();
+                },
+                academicDataId);
+    }
+
+    /**
+     * Trimester-over-trimester trends, optionally restricted to one class level
+     */
+    @Transactional(readOnly = true)
+    public List<AnalyticsResponse.TrimesterTrend> getTrimesterTrends(ClassLevel classLevel) {
+        String sql = """
+                SELECT t.*,
+                       LAG(t.avg_score) OVER w AS previous_avg_score,
+                       LAG(t.pass_count) OVER w AS previous_pass_count,
+                       LAG(t.mark_count) OVER w AS previous_mark_count
+                FROM mv_trimester_trends t
+                """
+                + (classLevel != null ? "WHERE t.class_level = ? " : "")
+                + """
+                WINDOW w AS (PARTITION BY t.class_level ORDER BY t.academic_year,
+                             CASE t.trimester WHEN 'FIRST' THEN 1 WHEN 'SECOND' THEN 2 ELSE 3 END)
+                ORDER BY t.class_level, t.academic_year,
+                         CASE t.trimester WHEN 'FIRST' THEN 1 WHEN 'SECOND' THEN 2 ELSE 3 END
+                """;
+        Object[] args = classLevel != null ? new Object[] { classLevel.name() } : new Object[0];
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            double averageScore = rs.getDouble("avg_score");
+            double passRate = rate(rs.getLong("pass_count"), rs.getLong("mark_count"));
+
+            Double averageScoreChange = null;
+            Double passRateChange = null;
+            double previousAverage = rs.getDouble("previous_avg_score");
+            if (!rs.wasNull()) {
+                averageScoreChange = round(averageScore - previousAverage);
+                passRateChange = round(passRate
+                        - rate(rs.getLong("previous_pass_count"), rs.getLong("previous_mark_count")));
+            }
+
+            return AnalyticsResponse.TrimesterTrend.builder()
+                    .classLevel(ClassLevel.valueOf(rs.getString("class_level")))
+                    .academicYear(rs.getInt("academic_year"))
+                    .trimester(Trimester.valueOf(rs.getString("trimester")))
+                    .studentCount(rs.getLong("student_count"))
+                    .markCount(rs.getLong("mark_count"))
+                    .averageScore(averageScore)
+                    .passRate(passRate)
+                    .averageScoreChange(averageScoreChange)
+                    .passRateChange(passRateChange)
+                    .build();
+        }, args);
+    }
+
+    /**
+     * Refresh every analytics view without blocking dashboard readers
+     */
+    public synchronized void refreshViews() {
+        long start = System.currentTimeMillis();
+        for (String view : MATERIALIZED_VIEWS) {
+            jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + view);
+        }
+        log.info("Analytics views refreshed in {} ms", System.currentTimeMillis() - start);
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAcademicDataPublished(AcademicDataPublishedEvent event) {
+        log.info("AcademicData {} published, refreshing analytics views", event.getAcademicDataId());
+        try {
+            refreshViews();
+        } catch (Exception e) {
+            log.error("Failed to refresh analytics views: {}", e.getMessage(), e);
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGradingSchemeChanged(GradingSchemeChangedEvent event) {
+        log.info("Grading scheme of {} changed ({} reports recoloured), refreshing analytics views",
+                event.getClassLevel(), event.getRecomputedReports());
+        try {
+            refreshViews();
+        } catch (Exception e) {
+            log.error("Failed to refresh analytics views: {}", e.getMessage(), e);
+        }
+    }
+
+    private Map<String, Long> gradeColorCounts(ResultSet rs) throws SQLException {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String color : GRADE_COLORS) {
+            counts.put(color, rs.getLong(color + "_count"));
+        }
+        return counts;
+    }
+
+    private Map<String, Double> gradeColorRates(Map<String, Long> counts, long total) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        counts.forEach((color, count) -> rates.put(color, rate(count, total)));
+        return rates;
+    }
+
+    private double rate(long count, long total) {
+        return total == 0 ? 0.0 : round(100.0 * count / total);
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
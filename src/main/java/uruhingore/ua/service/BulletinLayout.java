@@ -0,0 +1,119 @@
+package uruhingore.ua.service;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.FontFactory;
+import lombok.AccessLevel;
+import lombok.Getter;
+import uruhingore.ua.config.BulletinLayoutProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Render plan of the bulletins, compiled once from a {@link BulletinLayoutProperties} definition:
+ * fonts and colours are resolved and the sections are checked. Immutable, shared by all renders.
+ */
+@Getter
+public final class BulletinLayout {
+
+    public enum Section {
+        LETTERHEAD, CLASS_INFO, TITLE, STUDENT_NAME, RANK, GRADES, COMMENT, SIGNATURES
+    }
+
+    private final String schoolName;
+    private final String schoolPhone;
+    private final List<String> locationLeft;
+    private final List<String> locationRight;
+
+    private final Font titleFont;
+    private final Font labelFont;
+    private final Font headerFont;
+    private final Font textFont;
+    private final Font cellFont;
+    private final Font smallFont;
+    private final Font gridScoreFont;
+
+    private final BaseColor gradeHeaderColor;
+    private final BaseColor gridHeaderColor;
+    private final BaseColor gridTrimesterHeaderColor;
+
+    // Colour of each grade colour name of the grading schemes
+    @Getter(AccessLevel.NONE)
+    private final Map<String, BaseColor> gradeColors;
+
+    private final List<Section> sections;
+
+    private BulletinLayout(BulletinLayoutProperties definition) {
+        BulletinLayoutProperties.School school = definition.getSchool();
+        this.schoolName = school.getName();
+        this.schoolPhone = school.getPhone();
+        this.locationLeft = List.copyOf(school.getLocationLeft());
+        this.locationRight = List.copyOf(school.getLocationRight());
+
+        BulletinLayoutProperties.Colors colors = definition.getColors();
+        this.titleFont = font(definition.getBoldFont(), 12, null);
+        this.labelFont = font(definition.getBoldFont(), 10, null);
+        this.headerFont = font(definition.getBoldFont(), 9, null);
+        this.textFont = font(definition.getFont(), 10, null);
+        this.cellFont = font(definition.getFont(), 9, null);
+        this.smallFont = font(definition.getFont(), 8, null);
+        this.gridScoreFont = font(definition.getBoldFont(), 10, color(colors.getGridScoreText()));
+
+        this.gradeHeaderColor = color(colors.getGradeHeader());
+        this.gridHeaderColor = color(colors.getGridHeader());
+        this.gridTrimesterHeaderColor = color(colors.getGridTrimesterHeader());
+
+        Map<String, BaseColor> grades = new HashMap<>();
+        for (String grade : GradingTable.GRADE_COLORS) {
+            if (!definition.getGradeColors().containsKey(grade)) {
+                throw new IllegalArgumentException("No colour defined for grade " + grade);
+            }
+            grades.put(grade, color(definition.getGradeColors().get(grade)));
+        }
+        this.gradeColors = Map.copyOf(grades);
+
+        List<Section> compiled = new ArrayList<>();
+        for (String section : definition.getSections()) {
+            try {
+                compiled.add(Section.valueOf(section.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown bulletin section: " + section);
+            }
+        }
+        this.sections = List.copyOf(compiled);
+    }
+
+    /**
+     * Compile a layout definition; IllegalArgumentException when it is invalid
+     */
+    public static BulletinLayout compile(BulletinLayoutProperties definition) {
+        return new BulletinLayout(definition);
+    }
+
+    private static Font font(String name, float size, BaseColor color) {
+        Font font = color != null ? FontFactory.getFont(name, size, color) : FontFactory.getFont(name, size);
+        if (font.getBaseFont() == null) {
+            throw new IllegalArgumentException("Unknown font: " + name);
+        }
+        return font;
+    }
+
+    private static BaseColor color(String hex) {
+        if (hex == null || !hex.matches("#[0-9A-Fa-f]{6}")) {
+            throw new IllegalArgumentException("Colors must be written #RRGGBB: " + hex);
+        }
+        int rgb = Integer.parseInt(hex.substring(1), 16);
+        return new BaseColor((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+    }
+
+    /**
+     * Colour in which a grade (green, blue, yellow, red) is drawn
+     */
+    public BaseColor gradeColor(String grade) {
+        return gradeColors.get(grade);
+    }
+}
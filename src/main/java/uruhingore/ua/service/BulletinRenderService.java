@@ -0,0 +1,143 @@
+package uruhingore.ua.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Service;
+import uruhingore.ua.dto.BulletinRequest;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.util.SingleFlight;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point for bulletin renders requested over HTTP.
+ * <p>
+ * Renders run on a dedicated, bounded pool instead of the Tomcat workers, so a burst of downloads cannot
+ * starve the other endpoints: when all render threads are busy and the queue is full the request is
+ * rejected at once with {@link RejectedExecutionException}. Identical concurrent requests (several parents
+ * of one child, a head clicking twice when results are published) share a single query and render.
+ * <p>
+ * Metrics: executor.* with name=bulletin.render (queued, active, idle = time waiting in the queue,
+ * execution time), bulletin.render.in_flight and bulletin.render.rejected.
+ */
+@Slf4j
+@Service
+public class BulletinRenderService {
+
+    private final DocumentService documentService;
+    private final ExecutorService renderPool;
+    private final Executor renderExecutor;
+    private final Counter rejected;
+
+    private final SingleFlight<BulletinKey, byte[]> academicDataRenders = new SingleFlight<>();
+
+    private final SingleFlight<ClassKey, byte[]> classRenders = new SingleFlight<>();
+
+    private record BulletinKey(UUID studentId, UUID academicDataId) {
+    }
+
+    private record ClassKey(UUID academicDataId, ClassLevel classLevel, Integer academicYear) {
+    }
+
+    public BulletinRenderService(DocumentService documentService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${rendering.threads:0}") int threads,
+                                 @Value("${rendering.queue-capacity:50}") int queueCapacity) {
+        this.documentService = documentService;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.rejected = Counter.builder("bulletin.render.rejected")
+                .description("Bulletin renders refused because the render pool was saturated")
+                .register(meterRegistry);
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("render-"),
+                (task, executor) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Render pool saturated (" + poolSize + " threads, "
+                            + queueCapacity + " queued)");
+                });
+        Gauge.builder("bulletin.render.in_flight", this, service -> service.academicDataRenders.inFlight() + service.classRenders.inFlight())
+                .description("Distinct bulletins being rendered (identical requests share one)")
+                .register(meterRegistry);
+        this.renderPool = ExecutorServiceMetrics.monitor(meterRegistry, pool, "bulletin.render");
+        // Renders keep the caller's identity, which replica routing uses for read-your-writes
+        this.renderExecutor = new DelegatingSecurityContextExecutor(renderPool);
+        log.info("Bulletin render pool: {} threads, queue of {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Bulletin of a student for an academic data (published marks only).
+     * Completes exceptionally with RejectedExecutionException when the render pool is saturated.
+     */
+    public CompletableFuture<byte[]> renderFromAcademicData(UUID studentId, UUID academicDataId) {
+        return render(academicDataRenders, new BulletinKey(studentId, academicDataId),
+                () -> documentService.generateBulletinFromAcademicData(studentId, academicDataId));
+    }
+
+    /**
+     * All bulletins of a class for an academic data, merged into one printable PDF
+     */
+    public CompletableFuture<byte[]> renderClass(UUID academicDataId, ClassLevel classLevel) {
+        return render(classRenders, new ClassKey(academicDataId, classLevel, null),
+                () -> documentService.generateClassBulletins(academicDataId, classLevel));
+    }
+
+    /**
+     * Grid bulletins (all trimesters of a year) of a class, merged into one printable PDF
+     */
+    public CompletableFuture<byte[]> renderClassGrid(ClassLevel classLevel, Integer academicYear) {
+        return render(classRenders, new ClassKey(null, classLevel, academicYear),
+                () -> documentService.generateClassGridBulletins(classLevel, academicYear));
+    }
+
+    /**
+     * Bulletin of a request built by the client; with its grades when withGrades is set.
+     * Request bodies rarely repeat, so these renders are not shared.
+     */
+    public CompletableFuture<byte[]> render(BulletinRequest request, boolean withGrades) {
+        return submit(withGrades
+                ? () -> documentService.generateBulletinWithGrades(request)
+                : () -> documentService.generateBulletinPdf(request));
+    }
+
+    private <K> CompletableFuture<byte[]> render(SingleFlight<K, byte[]> flights, K key, Render render) {
+        return flights.executeAsync(key, () -> submit(render));
+    }
+
+    private CompletableFuture<byte[]> submit(Render render) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return render.run();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, renderExecutor);
+    }
+
+    @FunctionalInterface
+    private interface Render {
+        byte[] run() throws Exception;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdown();
+    }
+}
@@ -6,28 +6,45 @@ import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.Element;
 import com.itextpdf.text.Font;
 import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.Image;
 import com.itextpdf.text.PageSize;
 import com.itextpdf.text.Paragraph;
 import com.itextpdf.text.Phrase;
 import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfDestination;
+import com.itextpdf.text.pdf.PdfName;
+import com.itextpdf.text.pdf.PdfOutline;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfStream;
+import com.itextpdf.text.pdf.PdfTemplate;
 import com.itextpdf.text.pdf.PdfWriter;
 import lombok.RequiredArgsConstructor;
+import uruhingore.ua.dto.BulletinPreviewResponse;
 import uruhingore.ua.dto.BulletinRequest;
+import uruhingore.ua.dto.ClassRankingResponse;
 import uruhingore.ua.dto.ModuleGradeDto;
 import uruhingore.ua.dto.SubjectGrade;
+import uruhingore.ua.model.ClassLevel;
 import uruhingore.ua.model.Trimester;
 import uruhingore.ua.repository.ModuleRepository;
 import uruhingore.ua.repository.ReportRepository;
 import uruhingore.ua.repository.StudentRepository;
+import uruhingore.ua.util.PdfDocumentId;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -36,17 +53,54 @@ public class DocumentService {
     private final ReportRepository reportRepository;
     private final ModuleRepository moduleRepository;
     private final StudentRepository studentRepository;
+    private final RankingService rankingService;
+    private final GradingSchemeService gradingSchemeService;
+    private final BulletinLayout layout;
 
-    private static final Font FONT_BOLD_12 = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
-    private static final Font FONT_BOLD_10 = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
-    private static final Font FONT_BOLD_9 = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 9);
-    private static final Font FONT_NORMAL_10 = FontFactory.getFont(FontFactory.HELVETICA, 10);
-    private static final Font FONT_NORMAL_9 = FontFactory.getFont(FontFactory.HELVETICA, 9);
-    private static final Font FONT_NORMAL_8 = FontFactory.getFont(FontFactory.HELVETICA, 8);
+    private static final float LETTERHEAD_MAX_HEIGHT = 300f;
+
+    /**
+     * Fixed subjects of the legacy (non module-based) bulletin, grouped by domain; key is the entry in the grades map
+     */
+    private record LegacySubject(String domain, String subject, String key) {
+    }
+
+    private static final List<LegacySubject> LEGACY_SUBJECTS = List.of(
+            new LegacySubject("Pré- Mathématiques", "", "math"),
+            new LegacySubject("Langage", "Pré- lecture", "lecture"),
+            new LegacySubject("Langage", "Pré- écriture", "ecriture"),
+            new LegacySubject("Exploratrice découverte", "Comportement", "decouverte"),
+            new LegacySubject("Développement social et emotionnel", "", "comportement"),
+            new LegacySubject("Développement physiques et sanitaire", "Gymnastiques", "gymnastiques"),
+            new LegacySubject("Développement physiques et sanitaire", "Structuration spatiale", "spatiale"),
+            new LegacySubject("Développement physiques et sanitaire", "Vie pratique", "viePratique"),
+            new LegacySubject("Art et Culture", "Dessin", "dessin"),
+            new LegacySubject("Art et Culture", "Coloriage", "coloriage"),
+            new LegacySubject("Art et Culture", "Modelage", "modelage"),
+            new LegacySubject("Art et Culture", "Musique", "musique"));
+
+    /**
+     * STANDARD: iText defaults. COMPACT: PDF 1.5 object and cross-reference streams, maximum deflate level.
+     */
+    public enum PdfProfile {
+        STANDARD,
+        COMPACT
+    }
+
+    @Value("${rendering.pdf-profile:COMPACT}")
+    private PdfProfile pdfProfile = PdfProfile.COMPACT;
+
+    /**
+     * Identical input gives identical bytes: no creation/modification dates and a file identifier derived
+     * from the content instead of a random one, so bulletins can be cached by ETag and deduplicated
+     */
+    @Value("${rendering.deterministic:true}")
+    private boolean deterministic = true;
 
     /**
      * Generate bulletin PDF from database (student reports with modules)
      */
+    @Transactional(readOnly = true)
     public byte[] generateBulletinFromDatabase(java.util.UUID studentId, Trimester trimester, 
             Integer academicYear) throws DocumentException, IOException {
         
@@ -67,6 +121,7 @@ public class DocumentService {
     /**
      * Generate bulletin PDF from database using academic data ID
      */
+    @Transactional(readOnly = true)
     public byte[] generateBulletinFromAcademicData(java.util.UUID studentId, java.util.UUID academicDataId) 
             throws DocumentException, IOException {
         
@@ -87,6 +142,7 @@ public class DocumentService {
     /**
      * Generate grid-based bulletin with color-filled cells for all trimesters (matching the image design)
      */
+    @Transactional(readOnly = true)
     public byte[] generateGridBulletin(java.util.UUID studentId, Integer academicYear, 
             String classe) throws DocumentException, IOException {
         
@@ -111,43 +167,143 @@ public class DocumentService {
         // Generate PDF
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, baos);
+        PdfWriter writer = newWriter(document, baos);
         
         document.open();
         
         // Build the grid bulletin
-        buildGridBulletinDocument(document, student, academicYear, classe, modules, trimesters, allReports);
+        buildGridBulletinDocument(document, buildLetterhead(writer, document), student, academicYear, classe,
+                modules, trimesters, allReports, gradingSchemeService.tableFor(student.getClassLevel(), academicYear));
+        
+        document.close();
+        
+        return finish(baos);
+    }
+
+    /**
+     * Generate the bulletins of a whole class for an academic data as one PDF (one section per student).
+     * All pages are written in a single pass by one writer, so fonts and the letterhead are stored once.
+     */
+    @Transactional(readOnly = true)
+    public byte[] generateClassBulletins(UUID academicDataId, ClassLevel classLevel) throws DocumentException {
+        
+        // Published reports of the class, ordered by student name then module
+        List<uruhingore.ua.model.Report> reports = reportRepository.findPublishedByAcademicDataIdAndClassLevel(
+                academicDataId, classLevel);
+        
+        if (reports.isEmpty()) {
+            throw new IllegalArgumentException("No reports found for class " + classLevel.getDisplayName()
+                    + " and the given academic data");
+        }
+        
+        Map<UUID, List<uruhingore.ua.model.Report>> reportsByStudent = new LinkedHashMap<>();
+        for (uruhingore.ua.model.Report report : reports) {
+            reportsByStudent.computeIfAbsent(report.getStudent().getId(), k -> new ArrayList<>()).add(report);
+        }
+        
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = newWriter(document, baos);
+        writer.setViewerPreferences(PdfWriter.PageModeUseOutlines);
+        
+        document.open();
+        Image letterhead = buildLetterhead(writer, document);
+        
+        for (List<uruhingore.ua.model.Report> studentReports : reportsByStudent.values()) {
+            BulletinRequest request = buildBulletinRequestFromReports(studentReports);
+            startSection(document, writer, request.getStudentName());
+            buildBulletinDocument(document, letterhead, request, null);
+        }
         
         document.close();
         
-        return baos.toByteArray();
+        return finish(baos);
+    }
+
+    /**
+     * Generate the grid bulletins of all active students of a class for a year as one PDF
+     */
+    @Transactional(readOnly = true)
+    public byte[] generateClassGridBulletins(ClassLevel classLevel, Integer academicYear) throws DocumentException {
+        
+        List<uruhingore.ua.model.Student> students = studentRepository.findByClassLevel(classLevel).stream()
+                .filter(student -> student.getStatus() == uruhingore.ua.model.Student.StudentStatus.ACTIVE)
+                .sorted(Comparator.comparing(uruhingore.ua.model.Student::getLastName)
+                        .thenComparing(uruhingore.ua.model.Student::getFirstName))
+                .toList();
+        
+        if (students.isEmpty()) {
+            throw new IllegalArgumentException("No active students found in class " + classLevel.getDisplayName());
+        }
+        
+        // Get all active modules (these are the ATELIERS)
+        List<uruhingore.ua.model.Module> modules = moduleRepository.findByActiveOrderByIndexOrder(true);
+        
+        if (modules.isEmpty()) {
+            throw new IllegalArgumentException("No active modules found. Please add modules first.");
+        }
+        
+        List<Trimester> trimesters = java.util.Arrays.asList(Trimester.FIRST, Trimester.SECOND, Trimester.THIRD);
+        
+        // All published reports of the class for the year in one query
+        Map<UUID, List<uruhingore.ua.model.Report>> reportsByStudent = new java.util.HashMap<>();
+        for (uruhingore.ua.model.Report report : reportRepository.findPublishedByClassLevelAndAcademicYear(classLevel, academicYear)) {
+            reportsByStudent.computeIfAbsent(report.getStudent().getId(), k -> new ArrayList<>()).add(report);
+        }
+        
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = newWriter(document, baos);
+        writer.setViewerPreferences(PdfWriter.PageModeUseOutlines);
+        
+        document.open();
+        Image letterhead = buildLetterhead(writer, document);
+        GradingTable grading = gradingSchemeService.tableFor(classLevel, academicYear);
+        
+        for (uruhingore.ua.model.Student student : students) {
+            startSection(document, writer, student.getFirstName() + " " + student.getLastName());
+            buildGridBulletinDocument(document, letterhead, student, academicYear, classLevel.getDisplayName(),
+                    modules, trimesters, reportsByStudent.getOrDefault(student.getId(), List.of()), grading);
+        }
+        
+        document.close();
+        
+        return finish(baos);
+    }
+
+    /**
+     * Start the bulletin of the next student on a new page, with a bookmark to it
+     */
+    private void startSection(Document document, PdfWriter writer, String title) {
+        // No-op on the first, still empty page
+        document.newPage();
+        new PdfOutline(writer.getRootOutline(), new PdfDestination(PdfDestination.FITH, document.top()), title);
     }
 
     /**
      * Build grid-based bulletin document (ATELIERS x TRIMESTERS grid with colored cells)
      */
-    private void buildGridBulletinDocument(Document document, uruhingore.ua.model.Student student,
+    private void buildGridBulletinDocument(Document document, Image letterhead, uruhingore.ua.model.Student student,
             Integer academicYear, String classe,
             List<uruhingore.ua.model.Module> modules,
             List<Trimester> trimesters,
-            List<uruhingore.ua.model.Report> reports) throws DocumentException {
+            List<uruhingore.ua.model.Report> reports,
+            GradingTable grading) throws DocumentException {
         
-        addHeader(document);
-        addContactInfo(document);
-        addLocationInfo(document);
+        document.add(letterhead);
         addClassInfo(document, classe != null ? classe : "N/A", String.valueOf(academicYear));
         
         // Student name
         String studentFullName = student.getFirstName() + " " + student.getLastName();
-        Paragraph studentName = new Paragraph("NOM DE L'ELEVE: " + studentFullName, FONT_BOLD_10);
+        Paragraph studentName = new Paragraph("NOM DE L'ELEVE: " + studentFullName, layout.getLabelFont());
         studentName.setSpacingAfter(15f);
         document.add(studentName);
         
         // Add the ATELIERS grid
-        addAteliersGrid(document, modules, trimesters, reports);
+        addAteliersGrid(document, modules, trimesters, reports, grading);
         
         // Add grade color legend
-        addColorLegend(document);
+        addColorLegend(document, grading);
         
         // Signature section
         addSignatureSection(document);
@@ -158,7 +314,8 @@ public class DocumentService {
      */
     private void addAteliersGrid(Document document, List<uruhingore.ua.model.Module> modules,
             List<Trimester> trimesters,
-            List<uruhingore.ua.model.Report> reports) throws DocumentException {
+            List<uruhingore.ua.model.Report> reports,
+            GradingTable grading) throws DocumentException {
         
         // Number of columns = 1 (ATELIERS label) + number of trimesters
         int numCols = 1 + trimesters.size();
@@ -175,20 +332,20 @@ public class DocumentService {
         table.setWidths(widths);
         
         // Header row
-        PdfPCell ateliersHeader = new PdfPCell(new Phrase("ATELIERS", FONT_BOLD_9));
+        PdfPCell ateliersHeader = new PdfPCell(new Phrase("ATELIERS", layout.getHeaderFont()));
         ateliersHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
         ateliersHeader.setVerticalAlignment(Element.ALIGN_MIDDLE);
-        ateliersHeader.setBackgroundColor(new BaseColor(200, 200, 200)); // Light gray
+        ateliersHeader.setBackgroundColor(layout.getGridHeaderColor());
         ateliersHeader.setPadding(5f);
         table.addCell(ateliersHeader);
         
         // Trimester headers
         for (Trimester trimester : trimesters) {
             String trimesterName = "TRIMESTRE " + getRomanNumeral(trimester.getValue());
-            PdfPCell trimesterHeader = new PdfPCell(new Phrase(trimesterName, FONT_BOLD_9));
+            PdfPCell trimesterHeader = new PdfPCell(new Phrase(trimesterName, layout.getHeaderFont()));
             trimesterHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
             trimesterHeader.setVerticalAlignment(Element.ALIGN_MIDDLE);
-            trimesterHeader.setBackgroundColor(new BaseColor(144, 238, 144)); // Light green
+            trimesterHeader.setBackgroundColor(layout.getGridTrimesterHeaderColor());
             trimesterHeader.setPadding(5f);
             table.addCell(trimesterHeader);
         }
@@ -207,7 +364,7 @@ public class DocumentService {
             // ATELIER name cell
             String atelierName = module.getName();
             
-            PdfPCell atelierCell = new PdfPCell(new Phrase(atelierName, FONT_NORMAL_9));
+            PdfPCell atelierCell = new PdfPCell(new Phrase(atelierName, layout.getCellFont()));
             atelierCell.setPadding(5f);
             atelierCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
             table.addCell(atelierCell);
@@ -224,12 +381,12 @@ public class DocumentService {
                 
                 if (report != null) {
                     // Fill cell with color based on score
-                    BaseColor color = getGradeColor(report.getScore());
+                    BaseColor color = layout.gradeColor(grading.gradeColor(report.getScore()));
                     scoreCell.setBackgroundColor(color);
                     
                     // Optionally add score text in white
                     Phrase scoreText = new Phrase(String.valueOf(report.getScore()), 
-                            FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.WHITE));
+                            layout.getGridScoreFont());
                     scoreCell.setPhrase(scoreText);
                     scoreCell.setHorizontalAlignment(Element.ALIGN_CENTER);
                     scoreCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
@@ -260,20 +417,17 @@ public class DocumentService {
     /**
      * Add color legend (SYSTEME DE GRADE)
      */
-    private void addColorLegend(Document document) throws DocumentException {
-        Paragraph legendTitle = new Paragraph("SYSTEME DE GRADE", FONT_BOLD_9);
+    private void addColorLegend(Document document, GradingTable grading) throws DocumentException {
+        Paragraph legendTitle = new Paragraph("SYSTEME DE GRADE", layout.getHeaderFont());
         legendTitle.setSpacingBefore(10f);
         legendTitle.setSpacingAfter(5f);
         document.add(legendTitle);
         
-        PdfPTable legendTable = new PdfPTable(4);
+        PdfPTable legendTable = new PdfPTable(grading.getBands().size());
         legendTable.setWidthPercentage(80);
         legendTable.setSpacingAfter(15f);
         
-        addGradingCell(legendTable, "80-100", new BaseColor(0, 176, 80));    // Green
-        addGradingCell(legendTable, "70-79", new BaseColor(0, 112, 192));    // Blue
-        addGradingCell(legendTable, "50-69", new BaseColor(255, 192, 0));    // Yellow/Orange
-        addGradingCell(legendTable, "0-49", new BaseColor(255, 0, 0));       // Red
+        addGradingCells(legendTable, grading);
         
         document.add(legendTable);
     }
@@ -281,6 +435,7 @@ public class DocumentService {
     /**
      * Generate blank bulletin template with all modules (for teachers to fill in marks)
      */
+    @Transactional(readOnly = true)
     public byte[] generateBulletinTemplate(java.util.UUID studentId, Trimester trimester, 
             Integer academicYear, String classe) throws DocumentException, IOException {
         
@@ -314,6 +469,8 @@ public class DocumentService {
                 .studentName(studentFullName)
                 .classe(classe != null ? classe : "N/A")
                 .annee(String.valueOf(academicYear))
+                .classLevel(student.getClassLevel())
+                .academicYear(academicYear)
                 .trimester(trimesterName)
                 .comment("") // Empty comment for template
                 .moduleGrades(moduleGrades)
@@ -362,32 +519,114 @@ public class DocumentService {
         String studentFullName = student.getFirstName() + " " + student.getLastName();
         String trimesterName = "TRIMESTRE " + getRomanNumeral(trimester.getValue());
         
+        // Class rank (computed once per class and cached)
+        ClassRankingResponse.StudentRank rank = firstReport.getClassLevel() != null
+                ? rankingService.getStudentRank(firstReport.getClassLevel(),
+                        firstReport.getAcademicData().getId(), student.getId()).orElse(null)
+                : null;
+        
         return BulletinRequest.builder()
                 .studentId(student.getId())
                 .studentName(studentFullName)
                 .classe(classe)
                 .annee(String.valueOf(academicYear))
+                .classLevel(firstReport.getClassLevel())
+                .academicYear(academicYear)
                 .trimester(trimesterName)
                 .comment(comment)
+                .rank(rank != null ? rank.getRank() : null)
+                .classSize(rank != null ? rank.getClassSize() : null)
                 .moduleGrades(moduleGrades)
                 .build();
     }
 
+    /**
+     * Layout model of the bulletin of a student for an academic data (published marks only), for
+     * client-side previews: the same data as the PDF, without rendering it
+     */
+    @Transactional(readOnly = true)
+    public BulletinPreviewResponse previewBulletinFromAcademicData(UUID studentId, UUID academicDataId) {
+        List<uruhingore.ua.model.Report> reports = reportRepository.findPublishedByStudentIdAndAcademicDataId(
+                studentId, academicDataId);
+        
+        if (reports.isEmpty()) {
+            throw new IllegalArgumentException("No reports found for the given student and academic data");
+        }
+        
+        return previewBulletin(buildBulletinRequestFromReports(reports));
+    }
+
+    /**
+     * Layout model of the bulletin {@link #generateBulletinWithGrades} would render for the request
+     */
+    public BulletinPreviewResponse previewBulletin(BulletinRequest request) {
+        GradingTable grading = gradingTableFor(request);
+        List<BulletinPreviewResponse.Row> rows = new ArrayList<>();
+        if (request.getModuleGrades() != null && !request.getModuleGrades().isEmpty()) {
+            for (ModuleGradeDto moduleGrade : request.getModuleGrades()) {
+                rows.add(previewRow(moduleGrade.getModuleName(), "", moduleGrade.getScore(), grading));
+            }
+        } else {
+            Map<String, SubjectGrade> grades = request.getGrades();
+            for (LegacySubject subject : LEGACY_SUBJECTS) {
+                SubjectGrade grade = grades != null ? grades.get(subject.key()) : null;
+                rows.add(previewRow(subject.domain(), subject.subject(), grade != null ? grade.getScore() : null, grading));
+            }
+        }
+        
+        String trimesterText = request.getTrimester() != null ? request.getTrimester() : "MI-TRIMESTRE";
+        return BulletinPreviewResponse.builder()
+                .studentId(request.getStudentId())
+                .studentName(request.getStudentName())
+                .classe(request.getClasse())
+                .annee(request.getAnnee())
+                .title("BULLETIN DU " + trimesterText.toUpperCase())
+                .rank(request.getRank())
+                .classSize(request.getClassSize())
+                .comment(request.getComment())
+                .rows(rows)
+                .gradingSystem(grading.getBands().stream()
+                        .map(band -> new BulletinPreviewResponse.GradeBand(band.label(),
+                                toHex(layout.gradeColor(band.gradeColor()))))
+                        .toList())
+                .build();
+    }
+
+    private BulletinPreviewResponse.Row previewRow(String domain, String subject, Number score, GradingTable grading) {
+        return BulletinPreviewResponse.Row.builder()
+                .domain(domain)
+                .subject(subject)
+                .score(score)
+                .color(score != null ? toHex(layout.gradeColor(grading.band(score.doubleValue()).gradeColor())) : null)
+                .build();
+    }
+
+    /**
+     * Grading table of the class level and year of a bulletin request; the default one without a class level
+     */
+    private GradingTable gradingTableFor(BulletinRequest request) {
+        return gradingSchemeService.tableFor(request.getClassLevel(), request.getAcademicYear());
+    }
+
+    private static String toHex(BaseColor color) {
+        return String.format("#%02X%02X%02X", color.getRed(), color.getGreen(), color.getBlue());
+    }
+
     /**
      * Generate bulletin PDF without grades (backward compatibility)
      */
     public byte[] generateBulletinPdf(BulletinRequest request) throws DocumentException, IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, baos);
+        PdfWriter writer = newWriter(document, baos);
 
         document.open();
 
-        buildBulletinDocument(document, request, null);
+        buildBulletinDocument(document, buildLetterhead(writer, document), request, null);
 
         document.close();
 
-        return baos.toByteArray();
+        return finish(baos);
     }
 
     /**
@@ -396,41 +635,105 @@ public class DocumentService {
     public byte[] generateBulletinWithGrades(BulletinRequest request) throws DocumentException, IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, baos);
+        PdfWriter writer = newWriter(document, baos);
 
         document.open();
 
-        buildBulletinDocument(document, request, request.getGrades());
+        buildBulletinDocument(document, buildLetterhead(writer, document), request, request.getGrades());
 
         document.close();
 
-        return baos.toByteArray();
+        return finish(baos);
     }
 
     /**
      * Build the complete bulletin document
      */
-    private void buildBulletinDocument(Document document, BulletinRequest request,
+    private void buildBulletinDocument(Document document, Image letterhead, BulletinRequest request,
             Map<String, SubjectGrade> grades) throws DocumentException {
-        addHeader(document);
-        addContactInfo(document);
-        addLocationInfo(document);
-        addClassInfo(document, request.getClasse(), request.getAnnee());
-        addBulletinTitle(document, request.getTrimester());
-        addStudentName(document, request.getStudentName());
-        
-        // Use module grades if available, otherwise fall back to legacy grades
-        if (request.getModuleGrades() != null && !request.getModuleGrades().isEmpty()) {
-            addDynamicAcademicTable(document, request.getModuleGrades(), request.getTrimester());
-        } else {
-            addAcademicTable(document, grades);
+        GradingTable grading = gradingTableFor(request);
+        for (BulletinLayout.Section section : layout.getSections()) {
+            switch (section) {
+                case LETTERHEAD -> document.add(letterhead);
+                case CLASS_INFO -> addClassInfo(document, request.getClasse(), request.getAnnee());
+                case TITLE -> addBulletinTitle(document, request.getTrimester());
+                case STUDENT_NAME -> addStudentName(document, request.getStudentName());
+                case RANK -> {
+                    if (request.getRank() != null) {
+                        addRankInfo(document, request.getRank(), request.getClassSize());
+                    }
+                }
+                case GRADES -> {
+                    // Use module grades if available, otherwise fall back to legacy grades
+                    if (request.getModuleGrades() != null && !request.getModuleGrades().isEmpty()) {
+                        addDynamicAcademicTable(document, request.getModuleGrades(), request.getTrimester(), grading);
+                    } else {
+                        addAcademicTable(document, grades, grading);
+                    }
+                }
+                case COMMENT -> addCommentSection(document, request.getComment());
+                case SIGNATURES -> addSignatureSection(document);
+            }
         }
-        
-        addCommentSection(document, request.getComment());
-        addSignatureSection(document);
     }
 
-    private void addHeader(Document document) throws DocumentException {
+    /**
+     * Writer for a new document, configured for the output profile
+     */
+    private PdfWriter newWriter(Document document, OutputStream out) throws DocumentException {
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        if (pdfProfile == PdfProfile.COMPACT) {
+            writer.setCompressionLevel(PdfStream.BEST_COMPRESSION);
+            // Must be set before the document is opened
+            writer.setFullCompression();
+        }
+        if (deterministic) {
+            writer.getInfo().remove(PdfName.CREATIONDATE);
+            writer.getInfo().remove(PdfName.MODDATE);
+        }
+        return writer;
+    }
+
+    /**
+     * Bytes of a closed document
+     */
+    private byte[] finish(ByteArrayOutputStream baos) {
+        byte[] pdf = baos.toByteArray();
+        return deterministic ? PdfDocumentId.deriveFromContent(pdf) : pdf;
+    }
+
+    /**
+     * School letterhead (header, contact and location) drawn once into a form XObject. Every bulletin
+     * of the document places the same XObject, so its content is stored only once in the file.
+     */
+    private Image buildLetterhead(PdfWriter writer, Document document) throws DocumentException {
+        float width = document.right() - document.left();
+
+        // Measure the height the letterhead needs at the page width
+        ColumnText measure = new ColumnText(null);
+        measure.setSimpleColumn(0, 0, width, LETTERHEAD_MAX_HEIGHT);
+        addLetterheadElements(measure);
+        measure.go(true);
+        float height = LETTERHEAD_MAX_HEIGHT - measure.getYLine();
+
+        PdfTemplate template = writer.getDirectContent().createTemplate(width, height);
+        ColumnText column = new ColumnText(template);
+        column.setSimpleColumn(0, 0, width, height);
+        addLetterheadElements(column);
+        column.go();
+
+        Image letterhead = Image.getInstance(template);
+        letterhead.setSpacingAfter(10f);
+        return letterhead;
+    }
+
+    private void addLetterheadElements(ColumnText column) {
+        column.addElement(createHeader());
+        column.addElement(createContactInfo());
+        column.addElement(createLocationInfo());
+    }
+
+    private PdfPTable createHeader() {
         PdfPTable headerTable = new PdfPTable(2);
         headerTable.setWidthPercentage(100);
         headerTable.setSpacingAfter(10f);
@@ -438,7 +741,7 @@ public class DocumentService {
         PdfPCell logoCell = new PdfPCell();
         logoCell.setBorder(Rectangle.NO_BORDER);
         logoCell.setHorizontalAlignment(Element.ALIGN_LEFT);
-        Paragraph logoPara = new Paragraph("URUHONGORE ACADEMY", FONT_BOLD_12);
+        Paragraph logoPara = new Paragraph(layout.getSchoolName(), layout.getTitleFont());
         logoCell.addElement(logoPara);
 
         PdfPCell emptyCell = new PdfPCell();
@@ -447,35 +750,37 @@ public class DocumentService {
         headerTable.addCell(logoCell);
         headerTable.addCell(emptyCell);
 
-        document.add(headerTable);
+        return headerTable;
     }
 
-    private void addContactInfo(Document document) throws DocumentException {
-        Paragraph contact = new Paragraph("TEL: 0784696074/0786064017", FONT_NORMAL_10);
+    private Paragraph createContactInfo() {
+        Paragraph contact = new Paragraph("TEL: " + layout.getSchoolPhone(), layout.getTextFont());
         contact.setAlignment(Element.ALIGN_CENTER);
         contact.setSpacingAfter(15f);
-        document.add(contact);
+        return contact;
     }
 
-    private void addLocationInfo(Document document) throws DocumentException {
+    private PdfPTable createLocationInfo() {
         PdfPTable locationTable = new PdfPTable(2);
         locationTable.setWidthPercentage(100);
         locationTable.setSpacingAfter(10f);
 
         PdfPCell leftCell = new PdfPCell();
         leftCell.setBorder(Rectangle.NO_BORDER);
-        leftCell.addElement(new Paragraph("DISTRICT: KICUKIRO", FONT_BOLD_10));
-        leftCell.addElement(new Paragraph("VILLAGE: NYANZA", FONT_BOLD_10));
+        for (String line : layout.getLocationLeft()) {
+            leftCell.addElement(new Paragraph(line, layout.getLabelFont()));
+        }
 
         PdfPCell rightCell = new PdfPCell();
         rightCell.setBorder(Rectangle.NO_BORDER);
-        rightCell.addElement(new Paragraph("SECTEUR: GATENGA", FONT_BOLD_10));
-        rightCell.addElement(new Paragraph("VILLAGE: JURU", FONT_BOLD_10));
+        for (String line : layout.getLocationRight()) {
+            rightCell.addElement(new Paragraph(line, layout.getLabelFont()));
+        }
 
         locationTable.addCell(leftCell);
         locationTable.addCell(rightCell);
 
-        document.add(locationTable);
+        return locationTable;
     }
 
     private void addClassInfo(Document document, String classe, String annee) throws DocumentException {
@@ -483,10 +788,10 @@ public class DocumentService {
         infoTable.setWidthPercentage(100);
         infoTable.setSpacingAfter(10f);
 
-        PdfPCell classeCell = new PdfPCell(new Phrase("CLASSE: " + classe, FONT_BOLD_10));
+        PdfPCell classeCell = new PdfPCell(new Phrase("CLASSE: " + classe, layout.getLabelFont()));
         classeCell.setBorder(Rectangle.NO_BORDER);
 
-        PdfPCell anneeCell = new PdfPCell(new Phrase("ANNEE SCOLAIRE: " + annee, FONT_BOLD_10));
+        PdfPCell anneeCell = new PdfPCell(new Phrase("ANNEE SCOLAIRE: " + annee, layout.getLabelFont()));
         anneeCell.setBorder(Rectangle.NO_BORDER);
         anneeCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
 
@@ -498,7 +803,7 @@ public class DocumentService {
 
     private void addBulletinTitle(Document document, String trimester) throws DocumentException {
         String trimesterText = trimester != null ? trimester : "MI-TRIMESTRE";
-        Paragraph title = new Paragraph("BULLETIN DU    " + trimesterText.toUpperCase(), FONT_BOLD_12);
+        Paragraph title = new Paragraph("BULLETIN DU    " + trimesterText.toUpperCase(), layout.getTitleFont());
         title.setAlignment(Element.ALIGN_CENTER);
         title.setSpacingAfter(15f);
         document.add(title);
@@ -510,10 +815,10 @@ public class DocumentService {
         nameTable.setSpacingAfter(10f);
         nameTable.setWidths(new float[] { 1f, 2f });
 
-        PdfPCell labelCell = new PdfPCell(new Phrase("NOM DE L'ELEVE", FONT_BOLD_10));
+        PdfPCell labelCell = new PdfPCell(new Phrase("NOM DE L'ELEVE", layout.getLabelFont()));
         labelCell.setPadding(5f);
 
-        PdfPCell nameCell = new PdfPCell(new Phrase(studentName, FONT_NORMAL_10));
+        PdfPCell nameCell = new PdfPCell(new Phrase(studentName, layout.getTextFont()));
         nameCell.setPadding(5f);
 
         nameTable.addCell(labelCell);
@@ -522,43 +827,52 @@ public class DocumentService {
         document.add(nameTable);
     }
 
-    private void addAcademicTable(Document document, Map<String, SubjectGrade> grades) throws DocumentException {
+    private void addRankInfo(Document document, Integer rank, Integer classSize) throws DocumentException {
+        String text = "RANG: " + rank + (classSize != null ? " / " + classSize : "");
+        Paragraph rankPara = new Paragraph(text, layout.getLabelFont());
+        rankPara.setAlignment(Element.ALIGN_RIGHT);
+        rankPara.setSpacingAfter(10f);
+        document.add(rankPara);
+    }
+
+    private void addAcademicTable(Document document, Map<String, SubjectGrade> grades, GradingTable grading)
+            throws DocumentException {
         PdfPTable table = new PdfPTable(3);
         table.setWidthPercentage(100);
         table.setSpacingAfter(15f);
         table.setWidths(new float[] { 4f, 3f, 3f });
 
         // Header Row
-        PdfPCell domainHeader = new PdfPCell(new Phrase("DOMAINE D'APPRENTISSAGE", FONT_BOLD_9));
+        PdfPCell domainHeader = new PdfPCell(new Phrase("DOMAINE D'APPRENTISSAGE", layout.getHeaderFont()));
         domainHeader.setColspan(2);
         domainHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
         table.addCell(domainHeader);
 
-        PdfPCell trimesterHeader = new PdfPCell(new Phrase("I TRIMESTRE", FONT_BOLD_9));
-        trimesterHeader.setBackgroundColor(new BaseColor(0, 176, 80)); // Green
+        PdfPCell trimesterHeader = new PdfPCell(new Phrase("I TRIMESTRE", layout.getHeaderFont()));
+        trimesterHeader.setBackgroundColor(layout.getGradeHeaderColor());
         trimesterHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
         table.addCell(trimesterHeader);
 
-        // Subjects
-        addSubjectRow(table, "Pré- Mathématiques", "", getGrade(grades, "math"), 1);
-
-        addSubjectRowWithRowspan(table, "Langage", "Pré- lecture", getGrade(grades, "lecture"), 2);
-        addSubjectRow(table, null, "Pré- écriture", getGrade(grades, "ecriture"), 0);
-
-        addSubjectRow(table, "Exploratrice découverte", "Comportement", getGrade(grades, "decouverte"), 1);
-        addSubjectRow(table, "Développement social et emotionnel", "", getGrade(grades, "comportement"), 1);
-
-        addSubjectRowWithRowspan(table, "Développement physiques et sanitaire", "Gymnastiques",
-                getGrade(grades, "gymnastiques"), 3);
-        addSubjectRow(table, null, "Structuration spatiale", getGrade(grades, "spatiale"), 0);
-        addSubjectRow(table, null, "Vie pratique", getGrade(grades, "viePratique"), 0);
-
-        addSubjectRowWithRowspan(table, "Art et Culture", "Dessin", getGrade(grades, "dessin"), 4);
-        addSubjectRow(table, null, "Coloriage", getGrade(grades, "coloriage"), 0);
-        addSubjectRow(table, null, "Modelage", getGrade(grades, "modelage"), 0);
-        addSubjectRow(table, null, "Musique", getGrade(grades, "musique"), 0);
+        // Subjects, the domain cell spanning the rows of its subjects
+        for (int i = 0; i < LEGACY_SUBJECTS.size(); i++) {
+            LegacySubject subject = LEGACY_SUBJECTS.get(i);
+            String grade = getGrade(grades, subject.key());
+            if (i > 0 && LEGACY_SUBJECTS.get(i - 1).domain().equals(subject.domain())) {
+                addSubjectRow(table, null, subject.subject(), grade, 0, grading);
+                continue;
+            }
+            int rowspan = 1;
+            while (i + rowspan < LEGACY_SUBJECTS.size() && LEGACY_SUBJECTS.get(i + rowspan).domain().equals(subject.domain())) {
+                rowspan++;
+            }
+            if (rowspan > 1) {
+                addSubjectRowWithRowspan(table, subject.domain(), subject.subject(), grade, rowspan, grading);
+            } else {
+                addSubjectRow(table, subject.domain(), subject.subject(), grade, 1, grading);
+            }
+        }
 
-        addGradingRow(table);
+        addGradingRow(table, grading);
 
         document.add(table);
     }
@@ -566,7 +880,8 @@ public class DocumentService {
     /**
      * Add dynamic academic table based on database modules and reports
      */
-    private void addDynamicAcademicTable(Document document, List<ModuleGradeDto> moduleGrades, String trimester) 
+    private void addDynamicAcademicTable(Document document, List<ModuleGradeDto> moduleGrades, String trimester,
+            GradingTable grading)
             throws DocumentException {
         PdfPTable table = new PdfPTable(3);
         table.setWidthPercentage(100);
@@ -574,23 +889,23 @@ public class DocumentService {
         table.setWidths(new float[] { 4f, 3f, 3f });
 
         // Header Row
-        PdfPCell domainHeader = new PdfPCell(new Phrase("DOMAINE D'APPRENTISSAGE", FONT_BOLD_9));
+        PdfPCell domainHeader = new PdfPCell(new Phrase("DOMAINE D'APPRENTISSAGE", layout.getHeaderFont()));
         domainHeader.setColspan(2);
         domainHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
         table.addCell(domainHeader);
 
         String trimesterText = trimester != null ? trimester.toUpperCase() : "I TRIMESTRE";
-        PdfPCell trimesterHeader = new PdfPCell(new Phrase(trimesterText, FONT_BOLD_9));
-        trimesterHeader.setBackgroundColor(new BaseColor(0, 176, 80)); // Green
+        PdfPCell trimesterHeader = new PdfPCell(new Phrase(trimesterText, layout.getHeaderFont()));
+        trimesterHeader.setBackgroundColor(layout.getGradeHeaderColor());
         trimesterHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
         table.addCell(trimesterHeader);
 
         // Add rows for each module
         for (ModuleGradeDto moduleGrade : moduleGrades) {
-            addSubjectRow(table, moduleGrade.getModuleName(), "", getScoreString(moduleGrade.getScore()), 1);
+            addSubjectRow(table, moduleGrade.getModuleName(), "", getScoreString(moduleGrade.getScore()), 1, grading);
         }
 
-        addGradingRow(table);
+        addGradingRow(table, grading);
         document.add(table);
     }
 
@@ -608,9 +923,10 @@ public class DocumentService {
         return "";
     }
 
-    private void addSubjectRow(PdfPTable table, String domain, String subject, String grade, int domainRowspan) {
+    private void addSubjectRow(PdfPTable table, String domain, String subject, String grade, int domainRowspan,
+            GradingTable grading) {
         if (domain != null) {
-            PdfPCell domainCell = new PdfPCell(new Phrase(domain, FONT_NORMAL_9));
+            PdfPCell domainCell = new PdfPCell(new Phrase(domain, layout.getCellFont()));
             if (domainRowspan > 1) {
                 domainCell.setRowspan(domainRowspan);
             }
@@ -619,18 +935,18 @@ public class DocumentService {
             table.addCell(domainCell);
         }
 
-        PdfPCell subjectCell = new PdfPCell(new Phrase(subject, FONT_NORMAL_9));
+        PdfPCell subjectCell = new PdfPCell(new Phrase(subject, layout.getCellFont()));
         subjectCell.setPadding(5f);
         table.addCell(subjectCell);
 
-        PdfPCell gradeCell = new PdfPCell(new Phrase(grade, FONT_NORMAL_9));
+        PdfPCell gradeCell = new PdfPCell(new Phrase(grade, layout.getCellFont()));
         gradeCell.setPadding(5f);
         gradeCell.setHorizontalAlignment(Element.ALIGN_CENTER);
 
         if (!grade.isEmpty()) {
             try {
                 double score = Double.parseDouble(grade);
-                gradeCell.setBackgroundColor(getGradeColor(score));
+                gradeCell.setBackgroundColor(layout.gradeColor(grading.band(score).gradeColor()));
             } catch (NumberFormatException e) {
                 // Keep default background
             }
@@ -638,41 +954,27 @@ public class DocumentService {
         table.addCell(gradeCell);
     }
 
-    private void addSubjectRowWithRowspan(PdfPTable table, String domain, String subject, String grade, int rowspan) {
-        PdfPCell domainCell = new PdfPCell(new Phrase(domain, FONT_NORMAL_9));
+    private void addSubjectRowWithRowspan(PdfPTable table, String domain, String subject, String grade, int rowspan,
+            GradingTable grading) {
+        PdfPCell domainCell = new PdfPCell(new Phrase(domain, layout.getCellFont()));
         domainCell.setRowspan(rowspan);
         domainCell.setPadding(5f);
         domainCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         table.addCell(domainCell);
 
-        addSubjectRow(table, null, subject, grade, 0);
-    }
-
-    private BaseColor getGradeColor(double score) {
-        if (score >= 80) {
-            return new BaseColor(0, 176, 80); // Green - #00B050
-        } else if (score >= 70) {
-            return new BaseColor(0, 112, 192); // Blue - #0070C0
-        } else if (score >= 50) {
-            return new BaseColor(255, 192, 0); // Yellow - #FFC000
-        } else {
-            return new BaseColor(255, 0, 0); // Red - #FF0000
-        }
+        addSubjectRow(table, null, subject, grade, 0, grading);
     }
 
-    private void addGradingRow(PdfPTable table) throws DocumentException {
-        PdfPCell systemCell = new PdfPCell(new Phrase("SYSTEME DE GRADE", FONT_BOLD_9));
+    private void addGradingRow(PdfPTable table, GradingTable grading) throws DocumentException {
+        PdfPCell systemCell = new PdfPCell(new Phrase("SYSTEME DE GRADE", layout.getHeaderFont()));
         systemCell.setPadding(5f);
         systemCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         table.addCell(systemCell);
 
-        PdfPTable gradingTable = new PdfPTable(4);
+        PdfPTable gradingTable = new PdfPTable(grading.getBands().size());
         gradingTable.setWidthPercentage(100);
 
-        addGradingCell(gradingTable, "80-100", new BaseColor(0, 176, 80));
-        addGradingCell(gradingTable, "70-79", new BaseColor(0, 112, 192));
-        addGradingCell(gradingTable, "50-69", new BaseColor(255, 192, 0));
-        addGradingCell(gradingTable, "0-49", new BaseColor(255, 0, 0));
+        addGradingCells(gradingTable, grading);
 
         PdfPCell nestedCell = new PdfPCell(gradingTable);
         nestedCell.setColspan(2);
@@ -681,8 +983,14 @@ public class DocumentService {
         table.addCell(nestedCell);
     }
 
+    private void addGradingCells(PdfPTable table, GradingTable grading) {
+        for (GradingTable.Band band : grading.getBands()) {
+            addGradingCell(table, band.label(), layout.gradeColor(band.gradeColor()));
+        }
+    }
+
     private void addGradingCell(PdfPTable table, String text, BaseColor color) {
-        PdfPCell cell = new PdfPCell(new Phrase(text, FONT_NORMAL_8));
+        PdfPCell cell = new PdfPCell(new Phrase(text, layout.getSmallFont()));
         cell.setBackgroundColor(color);
         cell.setHorizontalAlignment(Element.ALIGN_CENTER);
         cell.setPadding(5f);
@@ -695,11 +1003,11 @@ public class DocumentService {
         commentTable.setSpacingBefore(10f);
         commentTable.setSpacingAfter(5f);
 
-        PdfPCell headerCell = new PdfPCell(new Phrase("Commentaire", FONT_BOLD_9));
+        PdfPCell headerCell = new PdfPCell(new Phrase("Commentaire", layout.getHeaderFont()));
         headerCell.setPadding(5f);
         commentTable.addCell(headerCell);
 
-        PdfPCell contentCell = new PdfPCell(new Phrase(comment != null ? comment : "", FONT_NORMAL_9));
+        PdfPCell contentCell = new PdfPCell(new Phrase(comment != null ? comment : "", layout.getCellFont()));
         contentCell.setFixedHeight(30f);
         contentCell.setPadding(5f);
         commentTable.addCell(contentCell);
@@ -715,13 +1023,13 @@ public class DocumentService {
         signatureTable.setWidths(new float[] { 1f, 1f });
 
         PdfPCell parentsCell = new PdfPCell(
-                new Phrase("Signature des parents: .................................", FONT_NORMAL_9));
+                new Phrase("Signature des parents: .................................", layout.getCellFont()));
         parentsCell.setBorder(Rectangle.NO_BORDER);
         parentsCell.setFixedHeight(30f);
         signatureTable.addCell(parentsCell);
 
         PdfPCell titulaireCell = new PdfPCell(
-                new Phrase("Signature de Titulaire: .................................", FONT_NORMAL_9));
+                new Phrase("Signature de Titulaire: .................................", layout.getCellFont()));
         titulaireCell.setBorder(Rectangle.NO_BORDER);
         titulaireCell.setFixedHeight(30f);
         signatureTable.addCell(titulaireCell);
@@ -730,7 +1038,7 @@ public class DocumentService {
 
         Paragraph director = new Paragraph(
                 "NOM DE LA DIRECTRICE: .................................\nSIGNATURE ET CACHET DE L'ECOLE",
-                FONT_BOLD_10);
+                layout.getLabelFont());
         director.setAlignment(Element.ALIGN_RIGHT);
         document.add(director);
     }
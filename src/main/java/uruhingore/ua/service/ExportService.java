@@ -0,0 +1,112 @@
+package uruhingore.ua.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.util.CsvUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.UUID;
+
+/**
+ * Streams marks as CSV straight from a JDBC cursor (no entity materialization)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final String EXPORT_SQL = """
+            SELECT s.student_code, s.first_name, s.last_name, r.class_level,
+                   m.name AS module_name, m.category AS module_category,
+                   r.score, r.grade_color, r.teacher_comment,
+                   ad.trimester, ad.academic_year, ad.period, r.date_recorded
+            FROM reports r
+            JOIN students s ON s.id = r.student_id
+            JOIN modules m ON m.id = r.module_id
+            JOIN academic_data ad ON ad.id = r.academic_data_id
+            WHERE r.academic_data_id = ?
+              AND r.academic_year = (SELECT academic_year FROM academic_data WHERE id = ?)
+            """;
+
+    private static final String[] HEADER = {
+            "studentCode", "firstName", "lastName", "classLevel", "module", "moduleCategory",
+            "score", "gradeColor", "teacherComment", "trimester", "academicYear", "period", "dateRecorded"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Write every mark of an academic data (optionally one class level) as CSV.
+     * Must run in a transaction: PostgreSQL only uses a server-side cursor when autocommit is off.
+     */
+    @Transactional(readOnly = true)
+    public long exportMarksCsv(UUID academicDataId, ClassLevel classLevel, OutputStream out) throws IOException {
+        log.info("Exporting marks for academicData: {}, classLevel: {}", academicDataId, classLevel);
+        long start = System.currentTimeMillis();
+
+        String sql = EXPORT_SQL
+                + (classLevel != null ? " AND r.class_level = ?" : "")
+                + " ORDER BY r.class_level, s.last_name, s.first_name, s.student_code, m.index_order";
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        writer.write('\uFEFF'); // BOM so Excel opens the file as UTF-8
+        CsvUtils.writeRow(writer, HEADER);
+
+        long[] rows = {0};
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setObject(1, academicDataId);
+                ps.setObject(2, academicDataId);
+                if (classLevel != null) {
+                    ps.setString(3, classLevel.name());
+                }
+                return ps;
+            }, rs -> {
+                try {
+                    CsvUtils.writeRow(writer,
+                            rs.getString("student_code"),
+                            rs.getString("first_name"),
+                            rs.getString("last_name"),
+                            rs.getString("class_level"),
+                            rs.getString("module_name"),
+                            rs.getString("module_category"),
+                            String.valueOf(rs.getInt("score")),
+                            rs.getString("grade_color"),
+                            rs.getString("teacher_comment"),
+                            rs.getString("trimester"),
+                            String.valueOf(rs.getInt("academic_year")),
+                            rs.getString("period"),
+                            rs.getString("date_recorded"));
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        log.info("Exported {} marks for academicData {} in {} ms", rows[0], academicDataId, System.currentTimeMillis() - start);
+        return rows[0];
+    }
+}
@@ -0,0 +1,197 @@
+package uruhingore.ua.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uruhingore.ua.event.GradingSchemeChangedEvent;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.model.GradingScheme;
+import uruhingore.ua.repository.GradingSchemeRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Grading schemes of the class levels. Every version is compiled once into a {@link GradingTable},
+ * which gives the grade colour of new marks and the colours of the bulletins.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GradingSchemeService {
+
+    // One UPDATE for all reports the new version applies to; unchanged rows are not rewritten
+    private static final String RECOMPUTE_SQL = """
+            WITH bands AS (
+                SELECT min_score,
+                       COALESCE(LEAD(min_score) OVER (ORDER BY min_score) - 1, 100) AS max_score,
+                       grade_color
+                FROM grading_scheme_bands
+                WHERE scheme_id = ?
+            )
+            UPDATE reports r
+            SET grade_color = b.grade_color
+            FROM bands b
+            WHERE r.class_level = ?
+              AND r.academic_year >= ?
+              AND GREATEST(LEAST(r.score, 100), 0) BETWEEN b.min_score AND b.max_score
+              AND r.grade_color IS DISTINCT FROM b.grade_color
+            """;
+
+    private static final String LATEST_VERSION_SQL =
+            "SELECT COALESCE(MAX(version), 0) FROM grading_schemes WHERE class_level = ?";
+
+    private final GradingSchemeRepository gradingSchemeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Other nodes only learn about a new version this way (mark writers check the stored version instead)
+    @Value("${grading-schemes.cache-ttl:60s}")
+    private Duration cacheTtl;
+
+    // Compiled versions per class level, latest first; null until first use or after a change
+    private volatile Compiled compiled;
+    // Bumped on every change, so a compile that read the old versions is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    private record Compiled(Map<ClassLevel, List<GradingTable>> tables, long compiledAt) {
+    }
+
+    /**
+     * The table that applies to marks of a class level and academic year: the latest version effective
+     * that year, or the default thresholds
+     */
+    public GradingTable tableFor(ClassLevel classLevel, Integer academicYear) {
+        if (classLevel == null) {
+            return GradingTable.DEFAULT;
+        }
+        for (GradingTable table : tables().getOrDefault(classLevel, List.of())) {
+            if (table.appliesTo(academicYear)) {
+                return table;
+            }
+        }
+        return GradingTable.DEFAULT;
+    }
+
+    /**
+     * The table for marks being written in the current transaction. Holds the scheme lock of the class
+     * level shared until commit, so {@link #updateScheme} recomputes after these marks are committed (or
+     * they wait for the new version), and checks the compiled versions against the stored latest one.
+     */
+    public GradingTable tableForWrite(ClassLevel classLevel, Integer academicYear) {
+        if (classLevel == null) {
+            return GradingTable.DEFAULT;
+        }
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock_shared(hashtext(?))", Object.class, lockKey(classLevel));
+        int stored = jdbcTemplate.queryForObject(LATEST_VERSION_SQL, Integer.class, classLevel.name());
+        List<GradingTable> versions = tables().getOrDefault(classLevel, List.of());
+        if (stored != (versions.isEmpty() ? 0 : versions.get(0).getVersion())) {
+            log.info("Grading scheme {} v{} was saved elsewhere, compiling again", classLevel, stored);
+            invalidate();
+        }
+        return tableFor(classLevel, academicYear);
+    }
+
+    public String gradeColorForWrite(ClassLevel classLevel, Integer academicYear, int score) {
+        return tableForWrite(classLevel, academicYear).gradeColor(score);
+    }
+
+    /**
+     * All versions of the scheme of a class level, latest first
+     */
+    @Transactional(readOnly = true)
+    public List<GradingScheme> getSchemes(ClassLevel classLevel) {
+        return gradingSchemeRepository.findByClassLevelOrderByVersionDesc(classLevel);
+    }
+
+    /**
+     * Save the next version of the scheme of a class level and recompute the grade colour of the
+     * reports it applies to (from effectiveFromYear on, or all of them when null)
+     */
+    @Transactional
+    public GradingScheme updateScheme(ClassLevel classLevel, Integer effectiveFromYear, List<GradingScheme.Band> bands) {
+        if (classLevel == null) {
+            throw new IllegalArgumentException("Class level is required");
+        }
+        GradingTable.validate(bands);
+
+        // Concurrent updates of a class level would compute the same version: take turns until commit
+        // Also waits for the mark writers holding it shared (tableForWrite), so the recompute sees their marks
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext(?))", Object.class, lockKey(classLevel));
+        int version = gradingSchemeRepository.findFirstByClassLevelOrderByVersionDesc(classLevel)
+                .map(GradingScheme::getVersion)
+                .orElse(0) + 1;
+        GradingScheme scheme = gradingSchemeRepository.saveAndFlush(GradingScheme.builder()
+                .classLevel(classLevel)
+                .version(version)
+                .effectiveFromYear(effectiveFromYear)
+                .bands(new ArrayList<>(bands))
+                .build());
+
+        long start = System.currentTimeMillis();
+        int updated = jdbcTemplate.update(RECOMPUTE_SQL, scheme.getId(), classLevel.name(),
+                effectiveFromYear != null ? effectiveFromYear : Integer.MIN_VALUE);
+        log.info("Grading scheme {} v{} saved, grade colour of {} reports recomputed in {} ms",
+                classLevel, version, updated, System.currentTimeMillis() - start);
+
+        eventPublisher.publishEvent(new GradingSchemeChangedEvent(classLevel, version, updated));
+        return scheme;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGradingSchemeChanged(GradingSchemeChangedEvent event) {
+        // Compiled again on next use, from the committed versions
+        invalidate();
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        compiled = null;
+    }
+
+    private static String lockKey(ClassLevel classLevel) {
+        return "grading_scheme:" + classLevel.name();
+    }
+
+    private Map<ClassLevel, List<GradingTable>> tables() {
+        Compiled current = compiled;
+        if (current == null || expired(current)) {
+            synchronized (this) {
+                current = compiled;
+                if (current == null || expired(current)) {
+                    long compiledGeneration = generation.get();
+                    current = new Compiled(compileAll(), System.currentTimeMillis());
+                    if (generation.get() == compiledGeneration) {
+                        compiled = current;
+                    }
+                }
+            }
+        }
+        return current.tables();
+    }
+
+    private boolean expired(Compiled current) {
+        return System.currentTimeMillis() - current.compiledAt() > cacheTtl.toMillis();
+    }
+
+    private Map<ClassLevel, List<GradingTable>> compileAll() {
+        Map<ClassLevel, List<GradingTable>> compiled = new EnumMap<>(ClassLevel.class);
+        for (GradingScheme scheme : gradingSchemeRepository.findAll()) {
+            compiled.computeIfAbsent(scheme.getClassLevel(), k -> new ArrayList<>()).add(GradingTable.compile(scheme));
+        }
+        compiled.values().forEach(versions -> versions.sort(Comparator.comparingInt(GradingTable::getVersion).reversed()));
+        log.info("Compiled {} grading scheme versions", compiled.values().stream().mapToInt(List::size).sum());
+        return compiled;
+    }
+}
@@ -0,0 +1,118 @@
+package uruhingore.ua.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.model.GradingScheme;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A grading scheme compiled into a lookup table: the band of every score from 0 to 100 is resolved
+ * once, so marks and bulletins get a grade colour with one array access. Immutable.
+ */
+@Getter
+public final class GradingTable {
+
+    /**
+     * Colours a band may have (the analytics views count these)
+     */
+    public static final List<String> GRADE_COLORS = List.of("green", "blue", "yellow", "red");
+
+    /**
+     * The thresholds used when a class level has no scheme
+     */
+    public static final GradingTable DEFAULT = new GradingTable(null, 0, null, List.of(
+            new GradingScheme.Band(80, "green"),
+            new GradingScheme.Band(70, "blue"),
+            new GradingScheme.Band(50, "yellow"),
+            new GradingScheme.Band(0, "red")));
+
+    /**
+     * Scores from min to max (inclusive)
+     */
+    public record Band(int min, int max, String gradeColor) {
+
+        public String label() {
+            return min + "-" + max;
+        }
+    }
+
+    private final ClassLevel classLevel;
+    private final int version;
+    private final Integer effectiveFromYear;
+    // Highest band first
+    private final List<Band> bands;
+    // Index into bands of every score from 0 to 100
+    @Getter(AccessLevel.NONE)
+    private final int[] bandOfScore = new int[101];
+
+    private GradingTable(ClassLevel classLevel, int version, Integer effectiveFromYear, List<GradingScheme.Band> definition) {
+        this.classLevel = classLevel;
+        this.version = version;
+        this.effectiveFromYear = effectiveFromYear;
+        this.bands = compileBands(definition);
+        for (int i = 0; i < bands.size(); i++) {
+            for (int score = bands.get(i).min(); score <= bands.get(i).max(); score++) {
+                bandOfScore[score] = i;
+            }
+        }
+    }
+
+    /**
+     * Compile a scheme; IllegalArgumentException when its bands do not cover 0-100 exactly once
+     */
+    public static GradingTable compile(GradingScheme scheme) {
+        return new GradingTable(scheme.getClassLevel(), scheme.getVersion(), scheme.getEffectiveFromYear(), scheme.getBands());
+    }
+
+    /**
+     * Check the bands of a scheme before it is saved
+     */
+    public static void validate(List<GradingScheme.Band> definition) {
+        compileBands(definition);
+    }
+
+    private static List<Band> compileBands(List<GradingScheme.Band> definition) {
+        if (definition == null || definition.isEmpty()) {
+            throw new IllegalArgumentException("A grading scheme needs at least one band");
+        }
+        List<GradingScheme.Band> sorted = new ArrayList<>(definition);
+        sorted.sort(Comparator.comparing(GradingScheme.Band::getMinScore, Comparator.nullsFirst(Comparator.reverseOrder())));
+        List<Band> bands = new ArrayList<>();
+        int max = 100;
+        for (GradingScheme.Band band : sorted) {
+            Integer min = band.getMinScore();
+            if (min == null || min < 0 || min > max) {
+                throw new IllegalArgumentException("Invalid or duplicate band minimum score: " + min + " (must be 0-100)");
+            }
+            if (!GRADE_COLORS.contains(band.getGradeColor())) {
+                throw new IllegalArgumentException("Invalid grade color: " + band.getGradeColor() + ". Valid values are: " + GRADE_COLORS);
+            }
+            bands.add(new Band(min, max, band.getGradeColor()));
+            max = min - 1;
+        }
+        if (max != -1) {
+            throw new IllegalArgumentException("The lowest band must start at 0");
+        }
+        return List.copyOf(bands);
+    }
+
+    /**
+     * Band of a score; scores outside 0-100 take the nearest band
+     */
+    public Band band(double score) {
+        int index = (int) Math.max(0, Math.min(100, Math.floor(score)));
+        return bands.get(bandOfScore[index]);
+    }
+
+    public String gradeColor(int score) {
+        return band(score).gradeColor();
+    }
+
+    boolean appliesTo(Integer academicYear) {
+        return effectiveFromYear == null || (academicYear != null && academicYear >= effectiveFromYear);
+    }
+}
@@ -0,0 +1,313 @@
+package uruhingore.ua.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uruhingore.ua.dto.MarkImportResponse;
+import uruhingore.ua.event.MarksChangedEvent;
+import uruhingore.ua.model.AcademicData;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.repository.AcademicDataRepository;
+import uruhingore.ua.repository.UserRepository;
+import uruhingore.ua.util.CsvReader;
+import uruhingore.ua.util.UuidV7;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Imports marks from CSV. The file is parsed one record at a time, students/modules/enrollments
+ * are resolved through maps loaded once per import, and writes go out as JDBC batches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MarkImportService {
+
+    private static final int MAX_COMMENT_LENGTH = 500;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO reports (id, student_id, module_id, academic_data_id, academic_year, published, class_level,
+                                 score, grade_color, teacher_comment, teacher_id, date_recorded)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE reports
+            SET score = ?, grade_color = ?, class_level = ?,
+                teacher_comment = COALESCE(?, teacher_comment),
+                teacher_id = COALESCE(?, teacher_id)
+            WHERE id = ? AND academic_year = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AcademicDataRepository academicDataRepository;
+    private final UserRepository userRepository;
+    private final GradingSchemeService gradingSchemeService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${imports.batch-size:500}")
+    private int batchSize;
+
+    private record StudentRef(UUID id, ClassLevel classLevel) {
+    }
+
+    private record Key(UUID studentId, UUID moduleId) {
+    }
+
+    /**
+     * Import a CSV of marks into an academic data.
+     * Required columns: studentCode, module (name or id) and score; optional: teacherComment, classLevel.
+     * Invalid rows are reported and skipped, valid rows are inserted or update the existing mark.
+     */
+    @Transactional
+    public MarkImportResponse importMarks(UUID academicDataId, UUID teacherId, InputStream in) throws IOException {
+        long start = System.currentTimeMillis();
+        AcademicData academicData = academicDataRepository.findById(academicDataId)
+                .orElseThrow(() -> new IllegalArgumentException("AcademicData not found with id: " + academicDataId));
+        int academicYear = academicData.getAcademicYear();
+        // FOR SHARE until commit: a concurrent publish waits for this import or this import for it, so the
+        // flag copied onto the new reports is the committed one (see AcademicDataService.syncReportVisibility)
+        boolean published = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT published FROM academic_data WHERE id = ? FOR SHARE", Boolean.class, academicDataId));
+        if (teacherId != null && !userRepository.existsById(teacherId)) {
+            throw new IllegalArgumentException("Teacher not found with id: " + teacherId);
+        }
+
+        try (CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))) {
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty");
+            }
+            Map<String, Integer> columns = indexColumns(header);
+            Integer codeCol = columns.get("studentcode");
+            Integer moduleCol = columns.containsKey("module") ? columns.get("module") : columns.get("moduleid");
+            Integer scoreCol = columns.get("score");
+            Integer commentCol = columns.get("teachercomment");
+            Integer classLevelCol = columns.get("classlevel");
+            if (codeCol == null || moduleCol == null || scoreCol == null) {
+                throw new IllegalArgumentException("Header must contain the columns studentCode, module and score");
+            }
+
+            Map<String, StudentRef> students = loadStudents();
+            Map<String, UUID> modules = new HashMap<>();
+            Set<String> ambiguousModules = new HashSet<>();
+            loadModules(modules, ambiguousModules);
+            Set<Key> enrollments = loadEnrollments();
+            Map<Key, UUID> existing = loadExistingReports(academicDataId, academicYear);
+            // Grading table of each class level for this year, resolved once per import
+            Map<ClassLevel, GradingTable> gradingTables = new EnumMap<>(ClassLevel.class);
+
+            Set<Key> seen = new HashSet<>();
+            Set<UUID> touchedStudents = new HashSet<>();
+            List<Object[]> inserts = new ArrayList<>(batchSize);
+            List<Object[]> updates = new ArrayList<>(batchSize);
+            List<MarkImportResponse.RowError> errors = new ArrayList<>();
+            Date today = Date.valueOf(LocalDate.now());
+            int totalRows = 0;
+            int inserted = 0;
+            int updated = 0;
+
+            List<String> row;
+            while ((row = reader.readRecord()) != null) {
+                if (row.size() == 1 && row.get(0).isBlank()) {
+                    continue; // blank line
+                }
+                totalRows++;
+                int line = reader.getRecordLineNumber();
+                String code = field(row, codeCol);
+                String moduleValue = field(row, moduleCol);
+
+                StudentRef student = code != null ? students.get(code.toUpperCase(Locale.ROOT)) : null;
+                if (student == null) {
+                    errors.add(rowError(line, code, moduleValue, "Student not found with code: " + code));
+                    continue;
+                }
+                String moduleKey = moduleValue != null ? moduleValue.toLowerCase(Locale.ROOT) : null;
+                if (moduleKey != null && ambiguousModules.contains(moduleKey)) {
+                    errors.add(rowError(line, code, moduleValue, "Several active modules are named '" + moduleValue + "', use the module id"));
+                    continue;
+                }
+                UUID moduleId = moduleKey != null ? modules.get(moduleKey) : null;
+                if (moduleId == null) {
+                    errors.add(rowError(line, code, moduleValue, "Module not found: " + moduleValue));
+                    continue;
+                }
+
+                Integer score = parseScore(field(row, scoreCol));
+                if (score == null) {
+                    errors.add(rowError(line, code, moduleValue, "Score must be a whole number between 0 and 100"));
+                    continue;
+                }
+
+                ClassLevel classLevel = student.classLevel();
+                String classLevelValue = field(row, classLevelCol);
+                if (classLevelValue != null) {
+                    try {
+                        classLevel = ClassLevel.fromString(classLevelValue);
+                    } catch (IllegalArgumentException e) {
+                        errors.add(rowError(line, code, moduleValue, e.getMessage()));
+                        continue;
+                    }
+                }
+
+                String comment = field(row, commentCol);
+                if (comment != null && comment.length() > MAX_COMMENT_LENGTH) {
+                    // teacher_comment is VARCHAR(500): one long comment would fail the whole batch
+                    errors.add(rowError(line, code, moduleValue,
+                            "Teacher comment must be at most " + MAX_COMMENT_LENGTH + " characters"));
+                    continue;
+                }
+
+                Key key = new Key(student.id(), moduleId);
+                if (!enrollments.contains(key)) {
+                    errors.add(rowError(line, code, moduleValue, "Student is not enrolled in module: " + moduleValue));
+                    continue;
+                }
+                if (!seen.add(key)) {
+                    errors.add(rowError(line, code, moduleValue, "Duplicate mark for this student and module in the file"));
+                    continue;
+                }
+
+                String gradeColor = gradingTables.computeIfAbsent(classLevel,
+                        level -> gradingSchemeService.tableForWrite(level, academicYear)).gradeColor(score);
+                UUID reportId = existing.get(key);
+                if (reportId != null) {
+                    updates.add(new Object[]{score, gradeColor, classLevel.name(), comment, teacherId, reportId, academicYear});
+                    updated++;
+                } else {
+                    inserts.add(new Object[]{UuidV7.generate(), student.id(), moduleId, academicDataId, academicYear,
+                            published, classLevel.name(), score, gradeColor, comment, teacherId, today});
+                    inserted++;
+                }
+                touchedStudents.add(student.id());
+
+                if (inserts.size() >= batchSize) {
+                    flush(INSERT_SQL, inserts);
+                }
+                if (updates.size() >= batchSize) {
+                    flush(UPDATE_SQL, updates);
+                }
+            }
+            flush(INSERT_SQL, inserts);
+            flush(UPDATE_SQL, updates);
+
+            if (!touchedStudents.isEmpty()) {
+                eventPublisher.publishEvent(new MarksChangedEvent(academicDataId, touchedStudents));
+            }
+
+            long duration = System.currentTimeMillis() - start;
+            log.info("Imported marks for academicData {}: {} rows, {} inserted, {} updated, {} failed in {} ms",
+                    academicDataId, totalRows, inserted, updated, errors.size(), duration);
+
+            return MarkImportResponse.builder()
+                    .academicDataId(academicDataId)
+                    .totalRows(totalRows)
+                    .inserted(inserted)
+                    .updated(updated)
+                    .failed(errors.size())
+                    .durationMs(duration)
+                    .errors(errors)
+                    .build();
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    private Map<String, Integer> indexColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", ""), i);
+        }
+        return columns;
+    }
+
+    private Map<String, StudentRef> loadStudents() {
+        Map<String, StudentRef> students = new HashMap<>();
+        jdbcTemplate.query("SELECT id, student_code, class_level FROM students", rs -> {
+            students.put(rs.getString("student_code").toUpperCase(Locale.ROOT),
+                    new StudentRef(rs.getObject("id", UUID.class), ClassLevel.valueOf(rs.getString("class_level"))));
+        });
+        return students;
+    }
+
+    private void loadModules(Map<String, UUID> modules, Set<String> ambiguousModules) {
+        jdbcTemplate.query("SELECT id, name FROM modules WHERE active = true", rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            String name = rs.getString("name").trim().toLowerCase(Locale.ROOT);
+            if (modules.putIfAbsent(name, id) != null) {
+                ambiguousModules.add(name);
+            }
+            modules.put(id.toString(), id);
+        });
+    }
+
+    private Set<Key> loadEnrollments() {
+        Set<Key> enrollments = new HashSet<>();
+        jdbcTemplate.query("SELECT student_id, module_id FROM student_modules", rs -> {
+            enrollments.add(new Key(rs.getObject("student_id", UUID.class), rs.getObject("module_id", UUID.class)));
+        });
+        return enrollments;
+    }
+
+    private Map<Key, UUID> loadExistingReports(UUID academicDataId, int academicYear) {
+        Map<Key, UUID> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT id, student_id, module_id FROM reports WHERE academic_data_id = ? AND academic_year = ?", rs -> {
+            existing.putIfAbsent(new Key(rs.getObject("student_id", UUID.class), rs.getObject("module_id", UUID.class)),
+                    rs.getObject("id", UUID.class));
+        }, academicDataId, academicYear);
+        return existing;
+    }
+
+    private static String field(List<String> row, Integer index) {
+        if (index == null || index >= row.size()) {
+            return null;
+        }
+        String value = row.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer parseScore(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            int score = Integer.parseInt(value);
+            return score >= 0 && score <= 100 ? score : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static MarkImportResponse.RowError rowError(int line, String studentCode, String module, String message) {
+        return MarkImportResponse.RowError.builder()
+                .line(line)
+                .studentCode(studentCode)
+                .module(module)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,289 @@
+package uruhingore.ua.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import uruhingore.ua.dto.PublishNotification;
+import uruhingore.ua.model.AcademicData;
+import uruhingore.ua.repository.AcademicDataRepository;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes publish notifications to connected parents over Server-Sent Events.
+ * <p>
+ * Publications reach every node through PostgreSQL: publishing an academic data sends a NOTIFY on
+ * commit (see V13__notify_academic_data_published.sql) and each node LISTENs on one dedicated
+ * connection, so a parent is notified whichever node holds their stream. The children of the connected
+ * parents are looked up when a publication arrives, so a child linked after the stream was opened is
+ * included.
+ * <p>
+ * Each subscriber has a small queue drained by its own virtual thread, which blocks on the queue and
+ * on the socket: an idle subscriber costs a parked virtual thread and no platform thread. The thread
+ * sends a heartbeat comment when nothing was sent for a while. A subscriber whose queue is full (a
+ * client not reading) is disconnected rather than buffered for, and a parent opening more than
+ * notifications.max-streams-per-parent streams loses the oldest; on reconnect it catches up with
+ * /api/sync.
+ */
+@Slf4j
+@Service
+public class NotificationService {
+
+    static final String CHANNEL = "academic_data_published";
+
+    private static final String PUBLISHED_CHILDREN_SQL = """
+            SELECT DISTINCT ps.parent_id, r.student_id
+            FROM reports r
+            JOIN parent_students ps ON ps.student_id = r.student_id
+            WHERE r.academic_data_id = ? AND r.academic_year = ? AND r.published AND ps.parent_id = ANY (?)
+            """;
+
+    private final AcademicDataRepository academicDataRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final int queueSize;
+    private final int maxStreamsPerParent;
+
+    // Streams of each connected parent, oldest first; a deque is only touched inside compute* of the map
+    private final ConcurrentHashMap<UUID, Deque<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+    private volatile Thread listener;
+
+    private static final class Subscriber {
+        // Queued to stop the sender thread
+        private static final PublishNotification CLOSE = new PublishNotification();
+
+        private final UUID parentId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<PublishNotification> queue;
+
+        private Subscriber(UUID parentId, SseEmitter emitter, int queueSize) {
+            this.parentId = parentId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        private void close() {
+            queue.clear();
+            queue.offer(CLOSE);
+        }
+    }
+
+    public NotificationService(AcademicDataRepository academicDataRepository,
+                               JdbcTemplate jdbcTemplate,
+                               DataSourceProperties dataSourceProperties,
+                               @Value("${notifications.heartbeat:25s}") Duration heartbeat,
+                               @Value("${notifications.timeout:30m}") Duration timeout,
+                               @Value("${notifications.queue-size:16}") int queueSize,
+                               @Value("${notifications.max-streams-per-parent:3}") int maxStreamsPerParent) {
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("notifications.queue-size must be at least 1");
+        }
+        if (maxStreamsPerParent < 1) {
+            throw new IllegalArgumentException("notifications.max-streams-per-parent must be at least 1");
+        }
+        this.academicDataRepository = academicDataRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.queueSize = queueSize;
+        this.maxStreamsPerParent = maxStreamsPerParent;
+    }
+
+    /**
+     * Open a notification stream for a parent; only publications concerning their children are sent
+     */
+    public SseEmitter subscribe(UUID parentId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(parentId, emitter, queueSize);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        List<Subscriber> replaced = new ArrayList<>();
+        Deque<Subscriber> streams = subscribers.compute(parentId, (id, current) -> {
+            Deque<Subscriber> deque = current != null ? current : new ArrayDeque<>();
+            while (deque.size() >= maxStreamsPerParent) {
+                replaced.add(deque.pollFirst());
+            }
+            deque.addLast(subscriber);
+            return deque;
+        });
+        replaced.forEach(Subscriber::close);
+
+        Thread.ofVirtual().name("sse-" + parentId).start(() -> deliver(subscriber));
+        log.info("Parent {} subscribed to notifications ({} streams, {} replaced, {} parents connected)",
+                parentId, streams.size(), replaced.size(), subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Start listening for publications once the application (and its migrations) are up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListening() {
+        listener = Thread.ofPlatform().daemon().name("notifications-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stopListening() {
+        running = false;
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * LISTEN loop on a dedicated connection (outside the pools: it is held for the life of the node).
+     * Publications while reconnecting are missed; clients catch up with /api/sync.
+     */
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for publications on channel {}", CHANNEL);
+                while (running) {
+                    // Blocks until a notification arrives or the heartbeat elapses (then checks the connection)
+                    PGNotification[] notifications = pgConnection.getNotifications((int) heartbeat.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            onAcademicDataPublished(UUID.fromString(notification.getParameter()));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Publication listener failed, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(heartbeat.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Notify the connected parents whose children have marks in a newly published academic data
+     */
+    void onAcademicDataPublished(UUID academicDataId) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            AcademicData academicData = academicDataRepository.findById(academicDataId).orElse(null);
+            if (academicData == null || !Boolean.TRUE.equals(academicData.getPublished())) {
+                return;
+            }
+            Map<UUID, List<UUID>> childrenByParent = new HashMap<>();
+            UUID[] parents = subscribers.keySet().toArray(UUID[]::new);
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(PUBLISHED_CHILDREN_SQL);
+                ps.setObject(1, academicData.getId());
+                ps.setInt(2, academicData.getAcademicYear());
+                ps.setArray(3, con.createArrayOf("uuid", parents));
+                return ps;
+            }, rs -> {
+                childrenByParent.computeIfAbsent(rs.getObject("parent_id", UUID.class), k -> new ArrayList<>())
+                        .add(rs.getObject("student_id", UUID.class));
+            });
+
+            int[] notified = {0};
+            childrenByParent.forEach((parentId, children) -> {
+                PublishNotification notification = PublishNotification.builder()
+                        .academicDataId(academicData.getId())
+                        .trimester(academicData.getTrimester().getDisplayName())
+                        .academicYear(academicData.getAcademicYear())
+                        .period(academicData.getPeriod().getDisplayName())
+                        .studentIds(children)
+                        .build();
+                subscribers.computeIfPresent(parentId, (id, streams) -> {
+                    for (Subscriber subscriber : streams) {
+                        if (subscriber.queue.offer(notification)) {
+                            notified[0]++;
+                        } else {
+                            log.warn("Notifications of parent {} are not being read, disconnecting", id);
+                            subscriber.close();
+                        }
+                    }
+                    return streams;
+                });
+            });
+            log.info("AcademicData {} published, notified {} streams of {} parents", academicData.getId(), notified[0],
+                    childrenByParent.size());
+        } catch (Exception e) {
+            log.error("Failed to notify publication of AcademicData {}: {}", academicDataId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sender loop of one subscriber, on its virtual thread
+     */
+    private void deliver(Subscriber subscriber) {
+        try {
+            // Commits the response headers so the client knows the stream is open
+            subscriber.emitter.send(SseEmitter.event().comment("connected"));
+            while (true) {
+                PublishNotification notification = subscriber.queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (notification == Subscriber.CLOSE) {
+                    break;
+                }
+                if (notification == null) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name("published")
+                            .id(notification.getAcademicDataId().toString())
+                            .data(notification, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client gone or stream already completed
+            log.debug("Notification stream of parent {} closed: {}", subscriber.parentId, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            subscribers.computeIfPresent(subscriber.parentId, (id, streams) -> {
+                streams.remove(subscriber);
+                return streams.isEmpty() ? null : streams;
+            });
+            subscriber.emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package uruhingore.ua.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import uruhingore.ua.dto.ClassRankingResponse;
+import uruhingore.ua.event.MarksChangedEvent;
+import uruhingore.ua.model.ClassLevel;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computes class rankings (dense rank + percentile) per ClassLevel and AcademicData.
+ * A whole class is ranked with a single window-function query and kept in a bounded in-memory cache
+ * until marks for that AcademicData change, or for ranking.cache.ttl (changes made on other nodes or
+ * outside the application, e.g. renamed students).
+ * <p>
+ * Rankings are computed on the primary (a replica may not have the marks that caused the last eviction
+ * yet) and outside any cache lock; a ranking computed while an eviction happened is returned but not
+ * cached. The public methods do not open a transaction of their own, so a miss uses one connection. Cached entries are immutable, callers get their own {@link ClassRankingResponse.StudentRank}s.
+ */
+@Slf4j
+@Service
+public class RankingService {
+
+    private static final String RANKING_SQL = """
+            SELECT t.student_id, s.student_code, s.first_name, s.last_name,
+                   t.module_count, t.total_score, t.average_score,
+                   DENSE_RANK() OVER (ORDER BY t.average_score DESC) AS class_rank,
+                   CUME_DIST() OVER (ORDER BY t.average_score) AS cume_dist
+            FROM (
+                SELECT r.student_id,
+                       COUNT(*) AS module_count,
+                       SUM(r.score) AS total_score,
+                       AVG(r.score) AS average_score
+                FROM reports r
+                WHERE r.academic_data_id = ? AND r.class_level = ?
+                  -- lets PostgreSQL prune the reports partitions of other years at execution time
+                  AND r.academic_year = (SELECT ad.academic_year FROM academic_data ad WHERE ad.id = ?)
+                GROUP BY r.student_id
+            ) t
+            JOIN students s ON s.id = t.student_id
+            ORDER BY class_rank, s.last_name, s.first_name
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate primaryTransaction;
+    private final Cache<RankingKey, ClassRanking> cache;
+
+    // Bumped by every eviction, before the entries are removed
+    private final AtomicLong generation = new AtomicLong();
+
+    public RankingService(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${ranking.cache.max-size:500}") long maxSize,
+                          @Value("${ranking.cache.ttl:5m}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Read-write, so replica routing sends it to the primary
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cache = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+    }
+
+    /**
+     * Get the full ranking of a class for an academic data
+     */
+    public ClassRankingResponse getClassRanking(ClassLevel classLevel, UUID academicDataId) {
+        ClassRanking ranking = rankingFor(classLevel, academicDataId);
+        return ClassRankingResponse.builder()
+                .classLevel(classLevel)
+                .academicDataId(academicDataId)
+                .classSize(ranking.rankings().size())
+                .rankings(ranking.rankings().stream().map(rank -> rank.toResponse(ranking.rankings().size())).toList())
+                .build();
+    }
+
+    /**
+     * Get the rank of a single student within their class (O(1) once the class is ranked)
+     */
+    public Optional<ClassRankingResponse.StudentRank> getStudentRank(ClassLevel classLevel, UUID academicDataId, UUID studentId) {
+        ClassRanking ranking = rankingFor(classLevel, academicDataId);
+        return Optional.ofNullable(ranking.byStudent().get(studentId))
+                .map(rank -> rank.toResponse(ranking.rankings().size()));
+    }
+
+    /**
+     * Get the rank of a student for an academic data, resolving the class level from their reports
+     */
+    public Optional<ClassRankingResponse.StudentRank> getStudentRank(UUID academicDataId, UUID studentId) {
+        List<String> classLevels = jdbcTemplate.queryForList(
+                "SELECT class_level FROM reports WHERE student_id = ? AND academic_data_id = ? LIMIT 1",
+                String.class, studentId, academicDataId);
+        if (classLevels.isEmpty()) {
+            return Optional.empty();
+        }
+        return getStudentRank(ClassLevel.valueOf(classLevels.get(0)), academicDataId, studentId);
+    }
+
+    /**
+     * Drop every cached ranking of an academic data (all class levels)
+     */
+    public void evict(UUID academicDataId) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.academicDataId().equals(academicDataId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMarksChanged(MarksChangedEvent event) {
+        log.debug("Marks changed for academicData {}, evicting cached rankings", event.getAcademicDataId());
+        evict(event.getAcademicDataId());
+    }
+
+    private ClassRanking rankingFor(ClassLevel classLevel, UUID academicDataId) {
+        RankingKey key = new RankingKey(classLevel, academicDataId);
+        ClassRanking cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Read before the marks: an eviction after this point means the ranking may be stale
+        long computedAt = generation.get();
+        ClassRanking ranking = primaryTransaction.execute(status -> computeRanking(key));
+        // Atomic with the removal in evict: either the eviction sees the entry or we see the new generation
+        cache.asMap().compute(key, (k, current) -> generation.get() == computedAt ? ranking : current);
+        return ranking;
+    }
+
+    private ClassRanking computeRanking(RankingKey key) {
+        log.info("Computing ranking for class {} and academicData {}", key.classLevel(), key.academicDataId());
+
+        List<Rank> rankings = jdbcTemplate.query(RANKING_SQL,
+                (rs, rowNum) -> new Rank(
+                        rs.getObject("student_id", UUID.class),
+                        rs.getString("student_code"),
+                        rs.getString("first_name") + " " + rs.getString("last_name"),
+                        rs.getInt("module_count"),
+                        rs.getInt("total_score"),
+                        Math.round(rs.getDouble("average_score") * 100.0) / 100.0,
+                        rs.getInt("class_rank"),
+                        Math.round(rs.getDouble("cume_dist") * 1000.0) / 10.0),
+                key.academicDataId(), key.classLevel().name(), key.academicDataId());
+
+        Map<UUID, Rank> byStudent = new HashMap<>(rankings.size() * 2);
+        for (Rank rank : rankings) {
+            byStudent.put(rank.studentId(), rank);
+        }
+        return new ClassRanking(List.copyOf(rankings), Map.copyOf(byStudent));
+    }
+
+    private record RankingKey(ClassLevel classLevel, UUID academicDataId) {
+    }
+
+    private record ClassRanking(List<Rank> rankings, Map<UUID, Rank> byStudent) {
+    }
+
+    private record Rank(UUID studentId, String studentCode, String fullName, int moduleCount, int totalScore,
+                        double averageScore, int rank, double percentile) {
+
+        ClassRankingResponse.StudentRank toResponse(int classSize) {
+            return ClassRankingResponse.StudentRank.builder()
+                    .studentId(studentId)
+                    .studentCode(studentCode)
+                    .fullName(fullName)
+                    .moduleCount(moduleCount)
+                    .totalScore(totalScore)
+                    .averageScore(averageScore)
+                    .rank(rank)
+                    .classSize(classSize)
+                    .percentile(percentile)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package uruhingore.ua.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import uruhingore.ua.dto.GroupedReportResponse;
+import uruhingore.ua.event.AcademicDataPublishedEvent;
+import uruhingore.ua.model.Report;
+import uruhingore.ua.repository.ReportRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Read model of the parent views: the {@link GroupedReportResponse} of a student for a published
+ * academic data, stored as a JSON document in report_cards so a read is one primary-key lookup.
+ * <p>
+ * Cards are built when an academic data is published, or on the first read of a missing card. Triggers
+ * delete a card whenever the data it was built from changes (see V7__report_cards.sql); the builders take
+ * the advisory lock those triggers share, so a card is never built from marks being changed.
+ */
+@Slf4j
+@Service
+public class ReportCardService {
+
+    private static final String SELECT_SQL =
+            "SELECT document::text FROM report_cards WHERE student_id = ? AND academic_data_id = ?";
+
+    private static final String PUBLISHED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM reports WHERE student_id = ? AND academic_data_id = ? AND published)";
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO report_cards (student_id, academic_data_id, document, built_at)
+            VALUES (?, ?, ?::jsonb, now())
+            ON CONFLICT (student_id, academic_data_id)
+            DO UPDATE SET document = EXCLUDED.document, built_at = EXCLUDED.built_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReportRepository reportRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private record Lookup(String card, boolean published) {
+    }
+
+    public ReportCardService(JdbcTemplate jdbcTemplate,
+                             ReportRepository reportRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reportRepository = reportRepository;
+        this.objectMapper = objectMapper;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Report card of a student for an academic data as JSON, or null when it has no published marks.
+     * The lookup is read-only (served by a replica when they are enabled); a missing card is built on
+     * the primary afterwards.
+     */
+    public String getReportCard(UUID studentId, UUID academicDataId) {
+        Lookup lookup = readOnlyTransaction.execute(status -> {
+            List<String> card = jdbcTemplate.queryForList(SELECT_SQL, String.class, studentId, academicDataId);
+            if (!card.isEmpty()) {
+                return new Lookup(card.get(0), true);
+            }
+            return new Lookup(null, Boolean.TRUE.equals(
+                    jdbcTemplate.queryForObject(PUBLISHED_SQL, Boolean.class, studentId, academicDataId)));
+        });
+        if (lookup.card() != null) {
+            return lookup.card();
+        }
+        // Nothing to build: no need to hold off the writers of the whole academic data
+        if (!lookup.published()) {
+            return null;
+        }
+        return newTransaction.execute(status -> buildReportCard(studentId, academicDataId));
+    }
+
+    private String buildReportCard(UUID studentId, UUID academicDataId) {
+        lockAcademicData(academicDataId);
+        // A concurrent read may have built it while we waited
+        List<String> card = jdbcTemplate.queryForList(SELECT_SQL, String.class, studentId, academicDataId);
+        if (!card.isEmpty()) {
+            return card.get(0);
+        }
+        List<Report> reports = reportRepository.findPublishedByStudentIdAndAcademicDataId(studentId, academicDataId);
+        if (reports.isEmpty()) {
+            return null;
+        }
+        String document = toJson(GroupedReportResponse.fromReportsSingle(reports));
+        jdbcTemplate.update(UPSERT_SQL, studentId, academicDataId, document);
+        return document;
+    }
+
+    /**
+     * Build the cards of every student of an academic data once it is published
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAcademicDataPublished(AcademicDataPublishedEvent event) {
+        try {
+            newTransaction.executeWithoutResult(status -> buildReportCards(event.getAcademicDataId()));
+        } catch (Exception e) {
+            // Missing cards are built on first read
+            log.error("Failed to build report cards of AcademicData {}: {}", event.getAcademicDataId(), e.getMessage(), e);
+        }
+    }
+
+    private void buildReportCards(UUID academicDataId) {
+        long start = System.currentTimeMillis();
+        lockAcademicData(academicDataId);
+
+        Map<UUID, List<Report>> reportsByStudent = new LinkedHashMap<>();
+        for (Report report : reportRepository.findPublishedByAcademicDataId(academicDataId)) {
+            reportsByStudent.computeIfAbsent(report.getStudent().getId(), k -> new ArrayList<>()).add(report);
+        }
+
+        List<Object[]> cards = new ArrayList<>(reportsByStudent.size());
+        reportsByStudent.forEach((studentId, reports) -> cards.add(new Object[]{
+                studentId, academicDataId, toJson(GroupedReportResponse.fromReportsSingle(reports))}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, cards);
+        log.info("Built {} report cards of AcademicData {} in {} ms", cards.size(), academicDataId,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Wait for the writers of marks of the academic data and hold them off until commit
+     */
+    private void lockAcademicData(UUID academicDataId) {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext(?))", Object.class,
+                "report_cards:" + academicDataId);
+    }
+
+    private String toJson(GroupedReportResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize report card", e);
+        }
+    }
+}
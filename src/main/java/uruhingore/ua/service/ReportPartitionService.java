@@ -0,0 +1,168 @@
+package uruhingore.ua.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Year;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manages the yearly partitions of the reports table (reports_y&lt;year&gt;)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportPartitionService {
+
+    static final String ARCHIVE_SCHEMA = "archive";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Set<Integer> knownYears = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Make sure the partition of the current year exists
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void ensureCurrentYearPartition() {
+        ensurePartition(Year.now().getValue());
+    }
+
+    /**
+     * Create the partition of a year if it does not exist yet
+     */
+    @Transactional
+    public void ensurePartition(int year) {
+        if (knownYears.contains(year)) {
+            return;
+        }
+        String partition = partitionName(year);
+        // Serialize creation across nodes; the lock is released with the transaction
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext(?))", Object.class, partition);
+        if (!isAttached(year)) {
+            if (existsInSchema(partition, "public") || existsInSchema(partition, ARCHIVE_SCHEMA)) {
+                throw new IllegalArgumentException("Reports of " + year + " are detached; attach the partition again first");
+            }
+            jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF reports FOR VALUES IN (" + year + ")");
+            log.info("Created reports partition {}", partition);
+            // Only remember the partition once the CREATE is committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    knownYears.add(year);
+                }
+            });
+            return;
+        }
+        knownYears.add(year);
+    }
+
+    /**
+     * Move the reports of an academic data to another year (its academic year was changed)
+     */
+    @Transactional
+    public int moveAcademicData(UUID academicDataId, int year) {
+        ensurePartition(year);
+        int moved = jdbcTemplate.update(
+                "UPDATE reports SET academic_year = ? WHERE academic_data_id = ? AND academic_year <> ?",
+                year, academicDataId, year);
+        log.info("Moved {} reports of academicData {} to partition {}", moved, academicDataId, partitionName(year));
+        return moved;
+    }
+
+    /**
+     * List the partitions attached to reports with their approximate row counts
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname AS partition, pg_get_expr(c.relpartbound, c.oid) AS bound,
+                       c.reltuples::bigint AS estimated_rows, pg_total_relation_size(c.oid) AS total_bytes
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'reports'::regclass
+                ORDER BY c.relname
+                """);
+    }
+
+    /**
+     * Detach the partition of a past year; its reports stay in the table reports_y&lt;year&gt; but are
+     * no longer visible through reports. With archive=true the table is also moved to the archive schema.
+     */
+    @Transactional
+    public void detachPartition(int year, boolean archive) {
+        if (year >= Year.now().getValue()) {
+            throw new IllegalArgumentException("Only partitions of past years can be detached: " + year);
+        }
+        String partition = partitionName(year);
+        if (!isAttached(year)) {
+            throw new IllegalArgumentException("No attached reports partition for year " + year);
+        }
+        // Detaching fires no delete trigger: record the tombstones the sync clients need to drop the reports
+        int tombstones = jdbcTemplate.update("INSERT INTO sync_tombstones (entity, entity_id, student_id, change_seq) "
+                + "SELECT 'REPORT', id, student_id, pg_current_xact_id()::text::bigint FROM " + partition);
+        jdbcTemplate.execute("ALTER TABLE reports DETACH PARTITION " + partition);
+        knownYears.remove(year);
+        // The report cards of the year were built from the detached marks
+        jdbcTemplate.update("DELETE FROM report_cards WHERE academic_data_id IN "
+                + "(SELECT id FROM academic_data WHERE academic_year = ?)", year);
+        if (archive) {
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + ARCHIVE_SCHEMA);
+            jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + ARCHIVE_SCHEMA);
+        }
+        log.info("Detached reports partition {}{} ({} sync tombstones)", partition,
+                archive ? " into schema " + ARCHIVE_SCHEMA : "", tombstones);
+    }
+
+    /**
+     * Attach a previously detached (or archived) partition again
+     */
+    @Transactional
+    public void attachPartition(int year) {
+        String partition = partitionName(year);
+        if (isAttached(year)) {
+            throw new IllegalArgumentException("Reports partition for year " + year + " is already attached");
+        }
+        if (existsInSchema(partition, ARCHIVE_SCHEMA)) {
+            jdbcTemplate.execute("ALTER TABLE " + ARCHIVE_SCHEMA + "." + partition + " SET SCHEMA public");
+        } else if (!existsInSchema(partition, "public")) {
+            throw new IllegalArgumentException("No detached reports partition for year " + year);
+        }
+        // The reports come back to the sync clients as changed rows
+        jdbcTemplate.update("UPDATE " + partition + " SET change_seq = pg_current_xact_id()::text::bigint");
+        jdbcTemplate.execute("ALTER TABLE reports ATTACH PARTITION " + partition + " FOR VALUES IN (" + year + ")");
+        knownYears.add(year);
+        log.info("Attached reports partition {}", partition);
+    }
+
+    static String partitionName(int year) {
+        return "reports_y" + year;
+    }
+
+    private boolean isAttached(int year) {
+        Boolean attached = jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                               WHERE i.inhparent = 'reports'::regclass AND c.relname = ?)
+                """, Boolean.class, partitionName(year));
+        return Boolean.TRUE.equals(attached);
+    }
+
+    private boolean existsInSchema(String table, String schema) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_tables WHERE schemaname = ? AND tablename = ?)",
+                Boolean.class, schema, table);
+        return Boolean.TRUE.equals(exists);
+    }
+}
@@ -1,12 +1,16 @@
 package uruhingore.ua.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uruhingore.ua.dto.AddBulkMarksRequest;
 import uruhingore.ua.dto.AddMarkRequest;
 import uruhingore.ua.dto.UpdateMarkRequest;
+import uruhingore.ua.event.MarksChangedEvent;
 import uruhingore.ua.model.AcademicData;
 import uruhingore.ua.model.Module;
 import uruhingore.ua.model.Report;
@@ -20,6 +24,7 @@ import uruhingore.ua.repository.UserRepository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -32,15 +37,25 @@ public class ReportService {
     private final ModuleRepository moduleRepository;
     private final AcademicDataRepository academicDataRepository;
     private final UserRepository userRepository;
+    private final GradingSchemeService gradingSchemeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     /**
-     * Calculate grade color based on score
+     * Reload an academic data FOR SHARE until commit, so the published flag copied onto the reports
+     * written here is the committed one and a concurrent publish waits for them
      */
-    private String calculateGradeColor(int score) {
-        if (score >= 80) return "green";
-        if (score >= 70) return "blue";
-        if (score >= 50) return "yellow";
-        return "red";
+    private AcademicData lockForShare(AcademicData academicData) {
+        entityManager.refresh(academicData, LockModeType.PESSIMISTIC_READ);
+        return academicData;
+    }
+
+    /**
+     * Grade colour of a report, from the grading scheme of its class level and academic year
+     */
+    private String gradeColor(Report report) {
+        return gradingSchemeService.gradeColorForWrite(report.getClassLevel(),
+                report.getAcademicData().getAcademicYear(), report.getScore());
     }
 
     /**
@@ -52,7 +67,7 @@ public class ReportService {
                 request.getStudentId(), request.getModuleId(), request.getAcademicDataId());
 
         // Fetch student
-        Student student = studentRepository.findById(request.getStudentId())
+        Student student = studentRepository.findWithModulesById(request.getStudentId())
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with id: " + request.getStudentId()));
 
         // Fetch module
@@ -60,8 +75,8 @@ public class ReportService {
                 .orElseThrow(() -> new IllegalArgumentException("Module not found with id: " + request.getModuleId()));
 
         // Fetch academic data
-        AcademicData academicData = academicDataRepository.findById(request.getAcademicDataId())
-                .orElseThrow(() -> new IllegalArgumentException("AcademicData not found with id: " + request.getAcademicDataId()));
+        AcademicData academicData = lockForShare(academicDataRepository.findById(request.getAcademicDataId())
+                .orElseThrow(() -> new IllegalArgumentException("AcademicData not found with id: " + request.getAcademicDataId())));
 
         // Check if student is enrolled in the module
         if (!student.getModules().contains(module)) {
@@ -80,7 +95,6 @@ public class ReportService {
             log.info("Updating existing report");
             report = existingReports.get(0);
             report.setScore(request.getScore());
-            report.setGradeColor(calculateGradeColor(request.getScore()));
             if (request.getTeacherComment() != null) {
                 report.setTeacherComment(request.getTeacherComment());
             }
@@ -102,13 +116,14 @@ public class ReportService {
                     .academicData(academicData)
                     .classLevel(request.getClassLevel())
                     .score(request.getScore())
-                    .gradeColor(calculateGradeColor(request.getScore()))
                     .teacherComment(request.getTeacherComment())
                     .teacher(teacher)
                     .build();
         }
 
+        report.setGradeColor(gradeColor(report));
         Report savedReport = reportRepository.save(report);
+        eventPublisher.publishEvent(new MarksChangedEvent(academicData.getId(), Set.of(student.getId())));
         log.info("Mark saved successfully. Report ID: {}", savedReport.getId());
         return savedReport;
     }
@@ -120,12 +135,12 @@ public class ReportService {
     public Report updateMark(UUID reportId, UpdateMarkRequest request) {
         log.info("Updating mark for report: {}", reportId);
         
-        Report report = reportRepository.findById(reportId)
+        Report report = reportRepository.findDetailById(reportId)
                 .orElseThrow(() -> new IllegalArgumentException("Report not found with id: " + reportId));
+        lockForShare(report.getAcademicData());
 
         if (request.getScore() != null) {
             report.setScore(request.getScore());
-            report.setGradeColor(calculateGradeColor(request.getScore()));
         }
         if (request.getTeacherComment() != null) {
             report.setTeacherComment(request.getTeacherComment());
@@ -134,7 +149,10 @@ public class ReportService {
             report.setClassLevel(request.getClassLevel());
         }
 
+        report.setGradeColor(gradeColor(report));
         Report savedReport = reportRepository.save(report);
+        eventPublisher.publishEvent(new MarksChangedEvent(
+                savedReport.getAcademicData().getId(), Set.of(savedReport.getStudent().getId())));
         log.info("Mark updated successfully. Report ID: {}", savedReport.getId());
         return savedReport;
     }
@@ -146,11 +164,12 @@ public class ReportService {
     public void deleteMark(UUID reportId) {
         log.info("Deleting mark for report: {}", reportId);
         
-        if (!reportRepository.existsById(reportId)) {
-            throw new IllegalArgumentException("Report not found with id: " + reportId);
-        }
+        Report report = reportRepository.findById(reportId)
+                .orElseThrow(() -> new IllegalArgumentException("Report not found with id: " + reportId));
         
-        reportRepository.deleteById(reportId);
+        reportRepository.delete(report);
+        eventPublisher.publishEvent(new MarksChangedEvent(
+                report.getAcademicData().getId(), Set.of(report.getStudent().getId())));
         log.info("Mark deleted successfully. Report ID: {}", reportId);
     }
 
@@ -179,12 +198,12 @@ public class ReportService {
                 request.getStudentId(), request.getAcademicDataId(), request.getModuleMarks().size());
 
         // Fetch student
-        Student student = studentRepository.findById(request.getStudentId())
+        Student student = studentRepository.findWithModulesById(request.getStudentId())
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with id: " + request.getStudentId()));
 
         // Fetch academic data
-        AcademicData academicData = academicDataRepository.findById(request.getAcademicDataId())
-                .orElseThrow(() -> new IllegalArgumentException("AcademicData not found with id: " + request.getAcademicDataId()));
+        AcademicData academicData = lockForShare(academicDataRepository.findById(request.getAcademicDataId())
+                .orElseThrow(() -> new IllegalArgumentException("AcademicData not found with id: " + request.getAcademicDataId())));
 
         // Fetch teacher if provided
         Users teacher = null;
@@ -226,7 +245,6 @@ public class ReportService {
                     log.info("Updating existing report for module: {}", module.getName());
                     report = existingReports.get(0);
                     report.setScore(moduleMark.getScore());
-                    report.setGradeColor(calculateGradeColor(moduleMark.getScore()));
                     report.setClassLevel(request.getClassLevel());
                     if (request.getTeacherComment() != null) {
                         report.setTeacherComment(request.getTeacherComment());
@@ -243,12 +261,12 @@ public class ReportService {
                             .academicData(academicData)
                             .classLevel(request.getClassLevel())
                             .score(moduleMark.getScore())
-                            .gradeColor(calculateGradeColor(moduleMark.getScore()))
                             .teacherComment(request.getTeacherComment())
                             .teacher(teacher)
                             .build();
                 }
 
+                report.setGradeColor(gradeColor(report));
                 Report savedReport = reportRepository.save(report);
                 savedReports.add(savedReport);
                 log.info("Mark saved successfully for module: {}. Report ID: {}", module.getName(), savedReport.getId());
@@ -269,6 +287,10 @@ public class ReportService {
             log.warn("Some marks were not processed. Errors: {}", String.join("; ", errors));
         }
 
+        if (!savedReports.isEmpty()) {
+            eventPublisher.publishEvent(new MarksChangedEvent(academicData.getId(), Set.of(student.getId())));
+        }
+
         log.info("Bulk marks operation completed. Successfully saved: {}, Errors: {}", savedReports.size(), errors.size());
         return savedReports;
     }
@@ -0,0 +1,131 @@
+package uruhingore.ua.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates student codes (STD<year><nnnn>) from a per-year PostgreSQL sequence.
+ * <p>
+ * Codes are handed out in blocks (pooled-lo): the sequence increments by the block size and each
+ * value it returns is the first code of a block this node owns, so most codes cost no query at all.
+ * Every node must use the same block size. Codes are unique but not gap-free, and codes from
+ * different nodes interleave.
+ */
+@Slf4j
+@Service
+public class StudentCodeGenerator {
+
+    private static final String CODE_PREFIX = "STD";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final int blockSize;
+
+    // Current block of the current year: next <= code < limit
+    private int year;
+    private long next;
+    private long limit;
+
+    public StudentCodeGenerator(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${students.code-block-size:50}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("students.code-block-size must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Allocate one unused code for the current year
+     */
+    public String nextCode() {
+        return nextCodes(1).get(0);
+    }
+
+    /**
+     * Allocate the given number of unused codes for the current year
+     */
+    public synchronized List<String> nextCodes(int count) {
+        int currentYear = Year.now().getValue();
+        if (currentYear != year) {
+            ensureSequence(currentYear);
+            year = currentYear;
+            next = 0;
+            limit = 0;
+        }
+
+        List<String> codes = new ArrayList<>(count);
+        while (codes.size() < count && next < limit) {
+            codes.add(format(year, next++));
+        }
+
+        int missing = count - codes.size();
+        if (missing > 0) {
+            // Reserve all the blocks still needed in a single round-trip
+            int blocks = (missing + blockSize - 1) / blockSize;
+            List<Long> starts = jdbcTemplate.queryForList(
+                    "SELECT nextval('" + sequenceName(year) + "') FROM generate_series(1, ?)", Long.class, blocks);
+            for (long blockStart : starts) {
+                next = blockStart;
+                limit = blockStart + blockSize;
+                while (codes.size() < count && next < limit) {
+                    codes.add(format(year, next++));
+                }
+            }
+            log.debug("Reserved {} student code block(s) of {} for {}", blocks, blockSize, year);
+        }
+        return codes;
+    }
+
+    static String format(int year, long value) {
+        return String.format("%s%d%04d", CODE_PREFIX, year, value);
+    }
+
+    private static String sequenceName(int year) {
+        return "student_code_seq_" + year;
+    }
+
+    /**
+     * Create the sequence of a year on first use, starting after the highest code already taken.
+     * Runs in its own transaction so a rollback of the caller cannot undo it.
+     */
+    private void ensureSequence(int forYear) {
+        String sequence = sequenceName(forYear);
+        newTransaction.executeWithoutResult(status -> {
+            // Serialize creation across nodes; the lock is released with the transaction
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext(?))", Object.class, sequence);
+            Long increment = jdbcTemplate.query(
+                    "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+                    rs -> rs.next() ? rs.getLong(1) : null, sequence);
+
+            if (increment == null) {
+                String prefix = CODE_PREFIX + forYear;
+                Long highest = jdbcTemplate.queryForObject("""
+                        SELECT COALESCE(MAX(CAST(SUBSTRING(student_code FROM ?) AS BIGINT)), 0)
+                        FROM students
+                        WHERE student_code ~ ?
+                        """, Long.class, prefix.length() + 1, "^" + prefix + "[0-9]+$");
+                jdbcTemplate.execute("CREATE SEQUENCE " + sequence
+                        + " INCREMENT BY " + blockSize + " START WITH " + (highest + 1));
+                log.info("Created student code sequence {} starting after {}", sequence, highest);
+            } else if (increment != blockSize) {
+                // Sequences created one-code-at-a-time (or with another block size) move on to the new
+                // block size; the next value is past anything handed out before, leaving only a gap
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + blockSize);
+                log.warn("Changed increment of {} from {} to {}", sequence, increment, blockSize);
+            }
+        });
+    }
+}
@@ -0,0 +1,332 @@
+package uruhingore.ua.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uruhingore.ua.dto.StudentImportResponse;
+import uruhingore.ua.dto.StudentRequest;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.model.Student;
+import uruhingore.ua.util.CsvReader;
+import uruhingore.ua.util.UuidV7;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk student enrollment: references are checked with one query per table,
+ * codes come from the code sequence and all rows are written in JDBC batches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudentImportService {
+
+    private static final String INSERT_STUDENT_SQL = """
+            INSERT INTO students (id, student_code, first_name, last_name, date_of_birth, gender,
+                                  class_level, academic_year, status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_PARENT_SQL = "INSERT INTO parent_students (student_id, parent_id) VALUES (?, ?)";
+
+    private static final String INSERT_MODULE_SQL = "INSERT INTO student_modules (student_id, module_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StudentCodeGenerator studentCodeGenerator;
+    private final Validator validator;
+
+    @Value("${imports.batch-size:500}")
+    private int batchSize;
+
+    private record Row(int row, StudentRequest request) {
+    }
+
+    /**
+     * Import students from a JSON array (rows are numbered from 1)
+     */
+    @Transactional
+    public StudentImportResponse importStudents(List<StudentRequest> requests) {
+        List<Row> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            rows.add(new Row(i + 1, requests.get(i)));
+        }
+        return importRows(rows, new ArrayList<>());
+    }
+
+    /**
+     * Import students from CSV. Columns: firstName, lastName, dateOfBirth (yyyy-MM-dd), gender,
+     * classLevel, academicYear, status (optional), parentIds and moduleIds (ids separated by ';')
+     */
+    @Transactional
+    public StudentImportResponse importStudentsCsv(InputStream in) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        List<StudentImportResponse.RowError> errors = new ArrayList<>();
+
+        try (CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))) {
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", ""), i);
+            }
+            for (String required : List.of("firstname", "lastname", "dateofbirth", "gender", "classlevel", "academicyear", "parentids")) {
+                if (!columns.containsKey(required)) {
+                    throw new IllegalArgumentException("Missing column in header: " + required);
+                }
+            }
+
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                int line = reader.getRecordLineNumber();
+                StudentRequest request = new StudentRequest();
+                request.setFirstName(field(record, columns.get("firstname")));
+                request.setLastName(field(record, columns.get("lastname")));
+                request.setGender(field(record, columns.get("gender")));
+                request.setAcademicYear(field(record, columns.get("academicyear")));
+                try {
+                    String dateOfBirth = field(record, columns.get("dateofbirth"));
+                    request.setDateOfBirth(dateOfBirth != null ? LocalDate.parse(dateOfBirth) : null);
+                    request.setClassLevel(ClassLevel.fromString(field(record, columns.get("classlevel"))));
+                    String status = field(record, columns.get("status"));
+                    request.setStatus(status != null ? Student.StudentStatus.valueOf(status.toUpperCase(Locale.ROOT)) : null);
+                    request.setParentIds(parseIds(field(record, columns.get("parentids"))));
+                    request.setModuleIds(parseIds(field(record, columns.get("moduleids"))));
+                } catch (RuntimeException e) {
+                    errors.add(rowError(line, request, "Invalid value: " + e.getMessage()));
+                    continue;
+                }
+                rows.add(new Row(line, request));
+            }
+        }
+        return importRows(rows, errors);
+    }
+
+    private StudentImportResponse importRows(List<Row> rows, List<StudentImportResponse.RowError> errors) {
+        long start = System.currentTimeMillis();
+        int totalRows = rows.size() + errors.size();
+        log.info("Importing {} students", totalRows);
+
+        // Bean validation
+        List<Row> valid = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Set<ConstraintViolation<StudentRequest>> violations = validator.validate(row.request());
+            if (violations.isEmpty()) {
+                valid.add(row);
+            } else {
+                String message = violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                errors.add(rowError(row.row(), row.request(), message));
+            }
+        }
+
+        // Resolve every referenced parent and module in one query each
+        Set<UUID> parentIds = new HashSet<>();
+        Set<UUID> moduleIds = new HashSet<>();
+        for (Row row : valid) {
+            parentIds.addAll(row.request().getParentIds());
+            if (row.request().getModuleIds() != null) {
+                moduleIds.addAll(row.request().getModuleIds());
+            }
+        }
+        Map<UUID, Boolean> users = loadUsers(parentIds);
+        Set<UUID> modules = loadModules(moduleIds);
+
+        List<Row> accepted = new ArrayList<>(valid.size());
+        for (Row row : valid) {
+            String problem = checkReferences(row.request(), users, modules);
+            if (problem != null) {
+                errors.add(rowError(row.row(), row.request(), problem));
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        List<StudentImportResponse.CreatedStudent> created = new ArrayList<>(accepted.size());
+        if (!accepted.isEmpty()) {
+            List<String> codes = studentCodeGenerator.nextCodes(accepted.size());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+            List<Object[]> studentRows = new ArrayList<>(accepted.size());
+            List<Object[]> parentRows = new ArrayList<>();
+            List<Object[]> moduleRows = new ArrayList<>();
+            for (int i = 0; i < accepted.size(); i++) {
+                Row row = accepted.get(i);
+                StudentRequest request = row.request();
+                UUID id = UuidV7.generate();
+                String code = codes.get(i);
+                Student.StudentStatus status = request.getStatus() != null ? request.getStatus() : Student.StudentStatus.ACTIVE;
+
+                studentRows.add(new Object[]{id, code, request.getFirstName(), request.getLastName(),
+                        Date.valueOf(request.getDateOfBirth()), request.getGender(), request.getClassLevel().name(),
+                        request.getAcademicYear(), status.name(), now, now});
+                for (UUID parentId : request.getParentIds()) {
+                    parentRows.add(new Object[]{id, parentId});
+                }
+                if (request.getModuleIds() != null) {
+                    for (UUID moduleId : request.getModuleIds()) {
+                        moduleRows.add(new Object[]{id, moduleId});
+                    }
+                }
+                created.add(StudentImportResponse.CreatedStudent.builder()
+                        .row(row.row())
+                        .studentId(id)
+                        .studentCode(code)
+                        .firstName(request.getFirstName())
+                        .lastName(request.getLastName())
+                        .build());
+            }
+
+            batchInsert(INSERT_STUDENT_SQL, studentRows);
+            batchInsert(INSERT_PARENT_SQL, parentRows);
+            batchInsert(INSERT_MODULE_SQL, moduleRows);
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Student import finished: {} rows, {} created, {} failed in {} ms",
+                totalRows, created.size(), errors.size(), duration);
+
+        errors.sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        return StudentImportResponse.builder()
+                .totalRows(totalRows)
+                .created(created.size())
+                .failed(errors.size())
+                .durationMs(duration)
+                .students(created)
+                .errors(errors)
+                .build();
+    }
+
+    private String checkReferences(StudentRequest request, Map<UUID, Boolean> users, Set<UUID> modules) {
+        if (request.getParentIds().isEmpty()) {
+            return "At least one parent is required";
+        }
+        for (UUID parentId : request.getParentIds()) {
+            Boolean isParent = users.get(parentId);
+            if (isParent == null) {
+                return "Parent not found with ID: " + parentId;
+            }
+            if (!isParent) {
+                return "User " + parentId + " is not a parent";
+            }
+        }
+        if (request.getModuleIds() != null) {
+            for (UUID moduleId : request.getModuleIds()) {
+                if (!modules.contains(moduleId)) {
+                    return "Module not found with ID: " + moduleId;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Users among the given ids, mapped to whether they have the PARENTS role
+     */
+    private Map<UUID, Boolean> loadUsers(Set<UUID> ids) {
+        Map<UUID, Boolean> users = new HashMap<>();
+        if (ids.isEmpty()) {
+            return users;
+        }
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement("""
+                    SELECT u.id,
+                           EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id AND ur.role = 'PARENTS') AS is_parent
+                    FROM users u
+                    WHERE u.id = ANY (?)
+                    """);
+            Array array = con.createArrayOf("uuid", ids.toArray());
+            ps.setArray(1, array);
+            return ps;
+        }, rs -> {
+            users.put(rs.getObject("id", UUID.class), rs.getBoolean("is_parent"));
+        });
+        return users;
+    }
+
+    private Set<UUID> loadModules(Set<UUID> ids) {
+        Set<UUID> modules = new HashSet<>();
+        if (ids.isEmpty()) {
+            return modules;
+        }
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement("SELECT id FROM modules WHERE id = ANY (?)");
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, rs -> {
+            modules.add(rs.getObject("id", UUID.class));
+        });
+        return modules;
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, rows, batchSize, (ps, row) -> {
+            for (int i = 0; i < row.length; i++) {
+                ps.setObject(i + 1, row[i]);
+            }
+        });
+    }
+
+    private static Set<UUID> parseIds(String value) {
+        Set<UUID> ids = new LinkedHashSet<>();
+        if (value == null) {
+            return ids;
+        }
+        for (String part : value.split("[;|]")) {
+            if (!part.isBlank()) {
+                ids.add(UUID.fromString(part.trim()));
+            }
+        }
+        return ids;
+    }
+
+    private static String field(List<String> record, Integer index) {
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static StudentImportResponse.RowError rowError(int row, StudentRequest request, String message) {
+        return StudentImportResponse.RowError.builder()
+                .row(row)
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .message(message)
+                .build();
+    }
+}
@@ -19,9 +19,10 @@ import uruhingore.ua.service.CloudinaryService;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.time.Year;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -35,6 +36,10 @@ public class StudentService {
     private final UserRepository userRepository;
     private final ModuleRepository moduleRepository;
     private final CloudinaryService cloudinaryService;
+    private final StudentCodeGenerator studentCodeGenerator;
+
+    // Student ids per IN list when loading the links of a list of students
+    private static final int LINK_CHUNK_SIZE = 10_000;
     
     /**
      * Create a new student (backward compatible - no profile photo)
@@ -76,7 +81,7 @@ public class StudentService {
         }
         
         // Generate student code
-        String studentCode = generateStudentCode();
+        String studentCode = studentCodeGenerator.nextCode();
         
         // Create student
         Student student = Student.builder()
@@ -116,7 +121,7 @@ public class StudentService {
     public StudentResponse assignParent(UUID studentId, UUID parentId) {
         log.info("Assigning parent {} to student {}", parentId, studentId);
         
-        Student student = studentRepository.findById(studentId)
+        Student student = studentRepository.findDetailById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + studentId));
         
         Users parent = userRepository.findById(parentId)
@@ -137,7 +142,7 @@ public class StudentService {
     public StudentResponse enrollModule(UUID studentId, UUID moduleId) {
         log.info("Enrolling student {} in module {}", studentId, moduleId);
         
-        Student student = studentRepository.findById(studentId)
+        Student student = studentRepository.findDetailById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + studentId));
         
         Module module = moduleRepository.findById(moduleId)
@@ -153,16 +158,13 @@ public class StudentService {
     @Transactional(readOnly = true)
     public List<StudentResponse> getAllStudents() {
         log.info("Fetching all students");
-        List<Student> students = studentRepository.findAll();
-        return students.stream()
-                .map(StudentResponse::fromStudent)
-                .collect(Collectors.toList());
+        return toResponses(studentRepository.findAll());
     }
     
     @Transactional(readOnly = true)
     public StudentResponse getStudentById(UUID studentId) {
         log.info("Fetching student with ID: {}", studentId);
-        Student student = studentRepository.findById(studentId)
+        Student student = studentRepository.findDetailById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + studentId));
         return StudentResponse.fromStudent(student);
     }
@@ -170,7 +172,7 @@ public class StudentService {
     @Transactional(readOnly = true)
     public List<StudentResponse.ParentInfo> getStudentParents(UUID studentId) {
         log.info("Fetching parents for student: {}", studentId);
-        Student student = studentRepository.findById(studentId)
+        Student student = studentRepository.findWithParentsById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + studentId));
         
         return student.getParents().stream()
@@ -198,35 +200,15 @@ public class StudentService {
             throw new IllegalArgumentException("User is not a parent");
         }
         
-        List<Student> students = studentRepository.findByParentId(parentId);
-        return students.stream()
-                .map(StudentResponse::fromStudent)
-                .collect(Collectors.toList());
+        return toResponses(studentRepository.findByParentId(parentId));
     }
     
     @Transactional(readOnly = true)
     public List<StudentResponse> getStudentsByClassLevel(ClassLevel classLevel) {
         log.info("Fetching students for class level: {}", classLevel);
-        List<Student> students = studentRepository.findByClassLevel(classLevel);
-        return students.stream()
-                .map(StudentResponse::fromStudent)
-                .collect(Collectors.toList());
+        return toResponses(studentRepository.findByClassLevel(classLevel));
     }
     
-    private String generateStudentCode() {
-        String year = String.valueOf(Year.now().getValue());
-        long count = studentRepository.count() + 1;
-        String code = String.format("STD%s%04d", year, count);
-        
-        // Ensure uniqueness
-        while (studentRepository.existsByStudentCode(code)) {
-            count++;
-            code = String.format("STD%s%04d", year, count);
-        }
-        
-        return code;
-    }
-
     /**
      * Upload profile photo for a student
      */
@@ -234,7 +216,7 @@ public class StudentService {
     public StudentResponse uploadProfilePhoto(UUID studentId, MultipartFile file) throws IOException {
         log.info("Uploading profile photo for student: {}", studentId);
 
-        Student student = studentRepository.findById(studentId)
+        Student student = studentRepository.findDetailById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + studentId));
 
         // Delete old photo if exists
@@ -263,7 +245,7 @@ public class StudentService {
     public StudentResponse deleteProfilePhoto(UUID studentId) throws IOException {
         log.info("Deleting profile photo for student: {}", studentId);
 
-        Student student = studentRepository.findById(studentId)
+        Student student = studentRepository.findDetailById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + studentId));
 
         if (student.getProfilePhoto() != null && !student.getProfilePhoto().isEmpty()) {
@@ -277,4 +259,42 @@ public class StudentService {
         log.info("No profile photo to delete for student: {}", studentId);
         return StudentResponse.fromStudent(student);
     }
+
+    /**
+     * Map a list of students with one query for their parents and one for their modules
+     * (instead of two lazy loads per student)
+     */
+    private List<StudentResponse> toResponses(List<Student> students) {
+        Map<UUID, Set<StudentResponse.ParentInfo>> parents = new HashMap<>();
+        Map<UUID, Set<StudentResponse.ModuleInfo>> modules = new HashMap<>();
+        List<UUID> ids = students.stream().map(Student::getId).toList();
+        for (int from = 0; from < ids.size(); from += LINK_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + LINK_CHUNK_SIZE, ids.size()));
+            for (StudentRepository.ParentLink link : studentRepository.findParentLinks(chunk)) {
+                parents.computeIfAbsent(link.getStudentId(), id -> new HashSet<>())
+                        .add(StudentResponse.ParentInfo.builder()
+                                .id(link.getId())
+                                .fullName(link.getFullName())
+                                .phone(link.getPhone())
+                                .email(link.getEmail())
+                                .address(link.getAddress())
+                                .gender(link.getGender())
+                                .status(link.isEnabled())
+                                .build());
+            }
+            for (StudentRepository.ModuleLink link : studentRepository.findModuleLinks(chunk)) {
+                modules.computeIfAbsent(link.getStudentId(), id -> new HashSet<>())
+                        .add(StudentResponse.ModuleInfo.builder()
+                                .id(link.getId())
+                                .name(link.getName())
+                                .category(link.getCategory())
+                                .build());
+            }
+        }
+        return students.stream()
+                .map(student -> StudentResponse.fromStudent(student,
+                        parents.getOrDefault(student.getId(), Set.of()),
+                        modules.getOrDefault(student.getId(), Set.of())))
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,174 @@
+package uruhingore.ua.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uruhingore.ua.dto.ReportResponse;
+import uruhingore.ua.dto.StudentResponse;
+import uruhingore.ua.dto.SyncResponse;
+import uruhingore.ua.model.Student;
+import uruhingore.ua.repository.AcademicDataRepository;
+import uruhingore.ua.repository.ReportRepository;
+import uruhingore.ua.repository.StudentRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Delta sync for the parent apps: what changed for a parent's children since a token. Rows carry the id
+ * of the transaction that last wrote them (change_seq) and deletions leave a tombstone, see
+ * V8__change_feed.sql. When nothing changed a sync costs a few index probes and returns empty lists.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    // Oldest transaction still running: everything older is visible to this read
+    private static final String TOKEN_SQL = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+    private static final String PRUNED_THROUGH_SQL = "SELECT tombstones_pruned_through FROM sync_state";
+
+    // A child linked since the token: its reports older than the token were never sent
+    private static final String LINKED_SINCE_SQL =
+            "SELECT EXISTS (SELECT 1 FROM parent_students WHERE parent_id = ? AND change_seq >= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AcademicDataRepository academicDataRepository;
+    private final StudentRepository studentRepository;
+    private final ReportRepository reportRepository;
+
+    @Value("${sync.tombstone-retention:180d}")
+    private Duration tombstoneRetention;
+
+    /**
+     * Changes of the children of a parent, their reports and the academic data since a token (all of
+     * them when since is null, when the token is older than the tombstone retention or when a child was
+     * linked to the parent since)
+     */
+    @Transactional(readOnly = true)
+    public SyncResponse sync(UUID parentId, String since) {
+        boolean full = since == null || since.isBlank();
+        long requested = full ? 0 : parseToken(since);
+        // Taken first: rows committed after this point are at or above the token and come again next time
+        long token = jdbcTemplate.queryForObject(TOKEN_SQL, Long.class);
+        if (!full && requested <= jdbcTemplate.queryForObject(PRUNED_THROUGH_SQL, Long.class)) {
+            // Deletions since the token may have been pruned: the client has to start over
+            full = true;
+        }
+        if (!full && Boolean.TRUE.equals(jdbcTemplate.queryForObject(LINKED_SINCE_SQL, Boolean.class, parentId, requested))) {
+            full = true;
+        }
+        long from = full ? 0 : requested;
+        List<UUID> studentIds = studentRepository.findByParentId(parentId).stream()
+                .map(Student::getId)
+                .toList();
+        Object[] ids = studentIds.toArray();
+
+        List<UUID> academicData = new ArrayList<>();
+        List<UUID> students = new ArrayList<>();
+        List<UUID> reports = new ArrayList<>();
+        SyncResponse.Removed removed = SyncResponse.Removed.builder()
+                .academicData(new ArrayList<>())
+                .students(new ArrayList<>())
+                .reports(new ArrayList<>())
+                .build();
+
+        jdbcTemplate.query("SELECT id, published FROM academic_data WHERE change_seq >= ?", rs -> {
+            (rs.getBoolean("published") ? academicData : removed.getAcademicData()).add(rs.getObject("id", UUID.class));
+        }, from);
+        query("SELECT id FROM students WHERE id = ANY (?) AND change_seq >= ?", ids, from, rs -> {
+            students.add(rs.getObject("id", UUID.class));
+        });
+        query("SELECT id, published FROM reports WHERE student_id = ANY (?) AND change_seq >= ?", ids, from, rs -> {
+            (rs.getBoolean("published") ? reports : removed.getReports()).add(rs.getObject("id", UUID.class));
+        });
+        if (full) {
+            removed.getAcademicData().clear();
+            removed.getReports().clear();
+        } else {
+            // Children unlinked from this parent come as STUDENT tombstones of the parent
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement("""
+                        SELECT entity, entity_id FROM sync_tombstones
+                        WHERE (student_id = ANY (?) OR parent_id = ? OR entity = 'ACADEMIC_DATA') AND change_seq >= ?
+                        """);
+                ps.setArray(1, con.createArrayOf("uuid", ids));
+                ps.setObject(2, parentId);
+                ps.setLong(3, from);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                UUID id = rs.getObject("entity_id", UUID.class);
+                switch (rs.getString("entity")) {
+                    case "REPORT" -> removed.getReports().add(id);
+                    case "STUDENT" -> removed.getStudents().add(id);
+                    default -> removed.getAcademicData().add(id);
+                }
+            });
+        }
+
+        SyncResponse response = SyncResponse.builder()
+                .token(Long.toString(token))
+                .full(full)
+                .academicData(academicData.isEmpty() ? List.of() : academicDataRepository.findAllById(academicData))
+                .students(students.isEmpty() ? List.of() : studentRepository.findDetailByIdIn(students).stream()
+                        .map(StudentResponse::fromStudent)
+                        .toList())
+                .reports(reports.isEmpty() ? List.of() : ReportResponse.fromReports(reportRepository.findDetailByIdIn(reports)))
+                .removed(removed)
+                .build();
+        log.debug("Sync of parent {} ({} students) since {}: {} academic data, {} students, {} reports changed",
+                parentId, studentIds.size(), from, academicData.size(), students.size(), reports.size());
+        return response;
+    }
+
+    /**
+     * Drop the tombstones older than the retention and remember the newest one dropped
+     */
+    @Scheduled(cron = "${sync.tombstone-prune-cron:0 30 3 * * *}")
+    @Transactional
+    public void pruneTombstones() {
+        Timestamp before = Timestamp.from(Instant.now().minus(tombstoneRetention));
+        Long prunedThrough = jdbcTemplate.queryForObject("""
+                WITH pruned AS (
+                    DELETE FROM sync_tombstones WHERE deleted_at < ? RETURNING change_seq
+                )
+                SELECT MAX(change_seq) FROM pruned
+                """, Long.class, before);
+        if (prunedThrough != null) {
+            jdbcTemplate.update("UPDATE sync_state SET tombstones_pruned_through = GREATEST(tombstones_pruned_through, ?)",
+                    prunedThrough);
+            log.info("Pruned sync tombstones older than {}; older tokens now get a full sync", before);
+        }
+    }
+
+    private void query(String sql, Object[] studentIds, long from, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("uuid", studentIds));
+            ps.setLong(2, from);
+            return ps;
+        }, handler);
+    }
+
+    private static long parseToken(String since) {
+        try {
+            long token = Long.parseLong(since.trim());
+            if (token < 0) {
+                throw new NumberFormatException();
+            }
+            return token;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + since);
+        }
+    }
+}
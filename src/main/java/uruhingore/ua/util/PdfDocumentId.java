@@ -0,0 +1,69 @@
+package uruhingore.ua.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Replaces the random file identifier iText writes in the trailer (/ID [&lt;..&gt;&lt;..&gt;]) by one
+ * derived from the content of the file, so that identical documents are identical byte for byte.
+ * The identifier keeps its length, so the cross-reference offsets stay valid.
+ */
+public final class PdfDocumentId {
+
+    private static final byte[] ID_MARKER = "/ID [<".getBytes(StandardCharsets.US_ASCII);
+
+    // Two hex strings of 16 bytes each: <32 hex><32 hex>
+    private static final int HEX_LENGTH = 32;
+
+    private PdfDocumentId() {
+    }
+
+    /**
+     * Rewrite the file identifier of a finished PDF in place and return it
+     */
+    public static byte[] deriveFromContent(byte[] pdf) {
+        int first = lastIndexOf(pdf, ID_MARKER);
+        if (first < 0) {
+            throw new IllegalArgumentException("No file identifier found in the PDF trailer");
+        }
+        first += ID_MARKER.length;
+        int second = first + HEX_LENGTH + 2;
+        if (second + HEX_LENGTH > pdf.length || pdf[first + HEX_LENGTH] != '>' || pdf[second - 1] != '<') {
+            throw new IllegalArgumentException("Unexpected file identifier layout in the PDF trailer");
+        }
+
+        // Hash everything but the identifier itself
+        MessageDigest digest = sha256();
+        digest.update(pdf, 0, first);
+        digest.update(pdf, second + HEX_LENGTH, pdf.length - second - HEX_LENGTH);
+        byte[] id = HexFormat.of().formatHex(digest.digest(), 0, HEX_LENGTH / 2).getBytes(StandardCharsets.US_ASCII);
+
+        // A document that was never modified has the same value in both entries
+        System.arraycopy(id, 0, pdf, first, HEX_LENGTH);
+        System.arraycopy(id, 0, pdf, second, HEX_LENGTH);
+        return pdf;
+    }
+
+    private static int lastIndexOf(byte[] data, byte[] pattern) {
+        for (int i = data.length - pattern.length; i >= 0; i--) {
+            int j = 0;
+            while (j < pattern.length && data[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package uruhingore.ua.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller starts the task, callers arriving
+ * while it runs get the same result (or exception). Nothing is cached once the task has finished,
+ * the next call starts it again.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Start the task for the key, or join the run already in flight for it
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> task) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return existing.copy();
+        }
+        try {
+            task.get().whenComplete((result, error) -> {
+                inFlight.remove(key, flight);
+                if (error != null) {
+                    flight.completeExceptionally(error);
+                } else {
+                    flight.complete(result);
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            // The task could not even be started (e.g. rejected by its executor)
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        // Callers get copies so that one of them cancelling does not affect the others
+        return flight.copy();
+    }
+
+    /**
+     * Number of keys currently being computed
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,46 @@
+package uruhingore.ua.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Time-ordered UUID version 7 (RFC 9562): 48-bit Unix millisecond timestamp, then a 12-bit counter
+ * and 62 random bits. Values generated by this JVM are strictly increasing, so new primary keys
+ * land at the right edge of a B-tree index instead of on random pages.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static long lastMillis = -1;
+    private static int counter;
+
+    private UuidV7() {
+    }
+
+    /**
+     * Generate a new UUIDv7
+     */
+    public static UUID generate() {
+        long millis;
+        int sequence;
+        synchronized (UuidV7.class) {
+            millis = System.currentTimeMillis();
+            if (millis > lastMillis) {
+                lastMillis = millis;
+                // Start each millisecond at a random point in the lower half so the counter rarely overflows
+                counter = RANDOM.nextInt(0x800);
+            } else if (++counter > 0xFFF) {
+                // Counter exhausted (or clock went backwards): continue on the next millisecond
+                lastMillis++;
+                counter = 0;
+            }
+            millis = lastMillis;
+            sequence = counter;
+        }
+
+        long msb = (millis << 16) | 0x7000L | sequence;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
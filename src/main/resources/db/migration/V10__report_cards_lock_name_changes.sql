@@ -0,0 +1,38 @@
+-- Renaming a student, module or teacher deletes cards like any other write to their data, so it takes
+-- the shared lock of each academic data involved too: a card being built from the old name waits for
+-- the rename to commit, or the rename waits for the card and then deletes it.
+
+CREATE OR REPLACE FUNCTION report_cards_invalidate_student() RETURNS trigger AS $$
+BEGIN
+    PERFORM report_cards_lock_shared(a.academic_data_id)
+    FROM (SELECT DISTINCT academic_data_id FROM reports WHERE student_id = NEW.id ORDER BY academic_data_id) a;
+    DELETE FROM report_cards WHERE student_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION report_cards_invalidate_module() RETURNS trigger AS $$
+BEGIN
+    PERFORM report_cards_lock_shared(a.academic_data_id)
+    FROM (SELECT DISTINCT academic_data_id FROM reports WHERE module_id = NEW.id ORDER BY academic_data_id) a;
+    DELETE FROM report_cards c
+    USING reports r
+    WHERE r.module_id = NEW.id
+      AND c.student_id = r.student_id
+      AND c.academic_data_id = r.academic_data_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION report_cards_invalidate_teacher() RETURNS trigger AS $$
+BEGIN
+    PERFORM report_cards_lock_shared(a.academic_data_id)
+    FROM (SELECT DISTINCT academic_data_id FROM reports WHERE teacher_id = NEW.id ORDER BY academic_data_id) a;
+    DELETE FROM report_cards c
+    USING reports r
+    WHERE r.teacher_id = NEW.id
+      AND c.student_id = r.student_id
+      AND c.academic_data_id = r.academic_data_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,81 @@
+-- Writes the change feed of V8 missed.
+--
+-- Links of parents and children: a link made since a parent's token makes the next sync of that parent
+-- full (the child's older reports are not above the token), an unlink leaves a STUDENT tombstone for
+-- that parent only.
+
+ALTER TABLE parent_students ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE TRIGGER trg_parent_students_change_seq
+    BEFORE INSERT OR UPDATE ON parent_students
+    FOR EACH ROW EXECUTE FUNCTION sync_stamp_change();
+
+ALTER TABLE sync_tombstones ADD COLUMN parent_id UUID;
+
+CREATE FUNCTION sync_record_unlink() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO sync_tombstones (entity, entity_id, parent_id, change_seq)
+    SELECT 'STUDENT', student_id, parent_id, pg_current_xact_id()::text::bigint FROM unlinked;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_parent_students_tombstone
+    AFTER DELETE ON parent_students
+    REFERENCING OLD TABLE AS unlinked
+    FOR EACH STATEMENT EXECUTE FUNCTION sync_record_unlink();
+
+-- Enrolments are part of StudentResponse: stamp the students whose modules changed, once per statement
+
+CREATE FUNCTION sync_stamp_enrolled_students() RETURNS trigger AS $$
+BEGIN
+    UPDATE students SET change_seq = pg_current_xact_id()::text::bigint
+    WHERE id IN (SELECT DISTINCT student_id FROM changed);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_student_modules_insert_change_seq
+    AFTER INSERT ON student_modules
+    REFERENCING NEW TABLE AS changed
+    FOR EACH STATEMENT EXECUTE FUNCTION sync_stamp_enrolled_students();
+
+CREATE TRIGGER trg_student_modules_delete_change_seq
+    AFTER DELETE ON student_modules
+    REFERENCING OLD TABLE AS changed
+    FOR EACH STATEMENT EXECUTE FUNCTION sync_stamp_enrolled_students();
+
+-- Reports embed the names of their student, module and teacher: renaming one restamps its reports.
+-- Hibernate writes every column, so only actual changes count.
+
+CREATE FUNCTION sync_restamp_reports() RETURNS trigger AS $$
+BEGIN
+    IF TG_ARGV[0] = 'STUDENT' THEN
+        UPDATE reports SET change_seq = pg_current_xact_id()::text::bigint WHERE student_id = NEW.id;
+    ELSIF TG_ARGV[0] = 'MODULE' THEN
+        UPDATE reports SET change_seq = pg_current_xact_id()::text::bigint WHERE module_id = NEW.id;
+    ELSE
+        UPDATE reports SET change_seq = pg_current_xact_id()::text::bigint
+        WHERE teacher_id = NEW.id OR approved_by = NEW.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_students_restamp_reports
+    AFTER UPDATE OF student_code, first_name, last_name ON students
+    FOR EACH ROW
+    WHEN ((OLD.student_code, OLD.first_name, OLD.last_name) IS DISTINCT FROM (NEW.student_code, NEW.first_name, NEW.last_name))
+    EXECUTE FUNCTION sync_restamp_reports('STUDENT');
+
+CREATE TRIGGER trg_modules_restamp_reports
+    AFTER UPDATE OF name, category ON modules
+    FOR EACH ROW
+    WHEN ((OLD.name, OLD.category) IS DISTINCT FROM (NEW.name, NEW.category))
+    EXECUTE FUNCTION sync_restamp_reports('MODULE');
+
+CREATE TRIGGER trg_users_restamp_reports
+    AFTER UPDATE OF full_name, email ON users
+    FOR EACH ROW
+    WHEN ((OLD.full_name, OLD.email) IS DISTINCT FROM (NEW.full_name, NEW.email))
+    EXECUTE FUNCTION sync_restamp_reports('USER');
@@ -0,0 +1,48 @@
+-- Invalidate report cards once per statement instead of once per report row: a mark import or a publish
+-- UPDATE of thousands of reports takes each academic data lock once and runs a single DELETE.
+
+DROP TRIGGER trg_reports_report_cards ON reports;
+DROP FUNCTION report_cards_invalidate_report();
+
+CREATE FUNCTION report_cards_invalidate_reports() RETURNS trigger AS $$
+DECLARE
+    students      UUID[];
+    academic_data UUID[];
+BEGIN
+    -- Only the transition tables of the firing event exist
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(student_id), array_agg(academic_data_id) INTO students, academic_data
+        FROM (SELECT DISTINCT student_id, academic_data_id FROM new_rows) k;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(student_id), array_agg(academic_data_id) INTO students, academic_data
+        FROM (SELECT DISTINCT student_id, academic_data_id FROM old_rows) k;
+    ELSE
+        SELECT array_agg(student_id), array_agg(academic_data_id) INTO students, academic_data
+        FROM (SELECT student_id, academic_data_id FROM old_rows
+              UNION
+              SELECT student_id, academic_data_id FROM new_rows) k;
+    END IF;
+
+    PERFORM report_cards_lock_shared(d.id)
+    FROM (SELECT DISTINCT unnest(academic_data) AS id ORDER BY 1) d;
+    DELETE FROM report_cards c
+    USING unnest(students, academic_data) AS k(student_id, academic_data_id)
+    WHERE c.student_id = k.student_id AND c.academic_data_id = k.academic_data_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_reports_report_cards_insert
+    AFTER INSERT ON reports
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION report_cards_invalidate_reports();
+
+CREATE TRIGGER trg_reports_report_cards_update
+    AFTER UPDATE ON reports
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION report_cards_invalidate_reports();
+
+CREATE TRIGGER trg_reports_report_cards_delete
+    AFTER DELETE ON reports
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION report_cards_invalidate_reports();
@@ -0,0 +1,15 @@
+-- Publishing an academic data notifies every application node (NotificationService LISTENs on this
+-- channel). NOTIFY is sent on commit, and not at all if the transaction rolls back.
+
+CREATE FUNCTION notify_academic_data_published() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('academic_data_published', NEW.id::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_academic_data_notify_published
+    AFTER UPDATE OF published ON academic_data
+    FOR EACH ROW
+    WHEN (NEW.published IS TRUE AND OLD.published IS NOT TRUE)
+    EXECUTE FUNCTION notify_academic_data_published();
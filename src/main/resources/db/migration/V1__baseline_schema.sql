@@ -0,0 +1,103 @@
+-- Baseline: the schema as Hibernate (ddl-auto: update) created it before migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and skip it.
+
+CREATE TABLE users (
+    id         UUID         NOT NULL,
+    full_name  VARCHAR(255) NOT NULL,
+    gender     VARCHAR(255),
+    email      VARCHAR(255) UNIQUE,
+    phone      VARCHAR(255) NOT NULL UNIQUE,
+    address    VARCHAR(255),
+    password   VARCHAR(255) NOT NULL,
+    enabled    BOOLEAN      NOT NULL,
+    active     BOOLEAN      NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_email ON users (email);
+CREATE INDEX idx_phone ON users (phone);
+
+CREATE TABLE user_roles (
+    user_id UUID NOT NULL,
+    role    VARCHAR(255) CHECK (role IN ('HEAD', 'STUDENT', 'TEACHER', 'PARENTS'))
+);
+
+CREATE TABLE academic_data (
+    id            UUID        NOT NULL,
+    trimester     VARCHAR(50) NOT NULL CHECK (trimester IN ('FIRST', 'SECOND', 'THIRD')),
+    academic_year INTEGER     NOT NULL,
+    period        VARCHAR(50) NOT NULL CHECK (period IN ('PERIOD_1', 'PERIOD_2', 'PERIOD_3', 'FINAL_SEMESTER')),
+    published     BOOLEAN     NOT NULL,
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_trimester_year_period UNIQUE (trimester, academic_year, period)
+);
+
+CREATE TABLE modules (
+    id          UUID         NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    category    VARCHAR(255),
+    active      BOOLEAN      NOT NULL,
+    index_order INTEGER,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE students (
+    id            UUID         NOT NULL,
+    student_code  VARCHAR(255) NOT NULL UNIQUE,
+    first_name    VARCHAR(255) NOT NULL,
+    last_name     VARCHAR(255) NOT NULL,
+    date_of_birth DATE         NOT NULL,
+    gender        VARCHAR(255) NOT NULL,
+    profile_photo VARCHAR(500),
+    class_level   VARCHAR(255) NOT NULL CHECK (class_level IN ('NURSERY_1', 'NURSERY_2', 'NURSERY_3', 'PRE_PRIMARY')),
+    academic_year VARCHAR(255) NOT NULL,
+    status        VARCHAR(255) CHECK (status IN ('ACTIVE', 'INACTIVE', 'GRADUATED', 'TRANSFERRED', 'SUSPENDED')),
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_student_code ON students (student_code);
+CREATE INDEX idx_class_level ON students (class_level);
+
+CREATE TABLE parent_students (
+    parent_id  UUID NOT NULL,
+    student_id UUID NOT NULL,
+    PRIMARY KEY (parent_id, student_id)
+);
+
+CREATE TABLE student_modules (
+    module_id  UUID NOT NULL,
+    student_id UUID NOT NULL,
+    PRIMARY KEY (module_id, student_id)
+);
+
+CREATE TABLE reports (
+    id               UUID        NOT NULL,
+    student_id       UUID        NOT NULL,
+    module_id        UUID        NOT NULL,
+    academic_data_id UUID        NOT NULL,
+    class_level      VARCHAR(50) NOT NULL CHECK (class_level IN ('NURSERY_1', 'NURSERY_2', 'NURSERY_3', 'PRE_PRIMARY')),
+    score            INTEGER     NOT NULL,
+    grade_color      VARCHAR(255),
+    teacher_comment  VARCHAR(500),
+    teacher_id       UUID,
+    approved_by      UUID,
+    date_recorded    DATE,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE user_roles ADD CONSTRAINT FKhfh9dx7w3ubf1co1vdev94g3f FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE parent_students ADD CONSTRAINT FKmgxwo2s6a5vbuk8w5agevhcu7 FOREIGN KEY (parent_id) REFERENCES users;
+ALTER TABLE parent_students ADD CONSTRAINT FKjajcco9ifsue0aejy2hulyf9y FOREIGN KEY (student_id) REFERENCES students;
+ALTER TABLE student_modules ADD CONSTRAINT FK78cuggn107t9bpfimj1wib5k3 FOREIGN KEY (module_id) REFERENCES modules;
+ALTER TABLE student_modules ADD CONSTRAINT FK5deps3gu1sjgvag0nts9ww4q4 FOREIGN KEY (student_id) REFERENCES students;
+ALTER TABLE reports ADD CONSTRAINT FKgh519yhxmxgr0q0aldwhft2pc FOREIGN KEY (academic_data_id) REFERENCES academic_data;
+ALTER TABLE reports ADD CONSTRAINT FKblluvjw8txo9bf0owtnababq3 FOREIGN KEY (approved_by) REFERENCES users;
+ALTER TABLE reports ADD CONSTRAINT FKlwfql26f011rmelk1n0v2h68l FOREIGN KEY (module_id) REFERENCES modules;
+ALTER TABLE reports ADD CONSTRAINT FKltpvf7j6lodaeqrm3skr8jjdf FOREIGN KEY (student_id) REFERENCES students;
+ALTER TABLE reports ADD CONSTRAINT FKkinbg7lajt1mghdttw0v87ew4 FOREIGN KEY (teacher_id) REFERENCES users;
@@ -0,0 +1,89 @@
+-- Objects that used to be applied by hand or from schema.sql.
+-- Written to be safe on databases baselined at V1, where some of them may already exist.
+
+-- academic_data enum constraints (formerly fix_academic_data_constraint.sql)
+ALTER TABLE academic_data DROP CONSTRAINT IF EXISTS academic_data_trimester_check;
+ALTER TABLE academic_data DROP CONSTRAINT IF EXISTS academic_data_period_check;
+
+ALTER TABLE academic_data
+    ADD CONSTRAINT academic_data_trimester_check
+    CHECK (trimester IN ('FIRST', 'SECOND', 'THIRD'));
+
+ALTER TABLE academic_data
+    ADD CONSTRAINT academic_data_period_check
+    CHECK (period IN ('PERIOD_1', 'PERIOD_2', 'PERIOD_3', 'FINAL_SEMESTER'));
+
+-- Analytics: per-module score statistics for each academic data and class level
+CREATE MATERIALIZED VIEW IF NOT EXISTS mv_module_score_stats AS
+SELECT r.academic_data_id,
+       r.class_level,
+       r.module_id,
+       m.name                                          AS module_name,
+       m.category                                      AS module_category,
+       COUNT(*)                                        AS mark_count,
+       ROUND(AVG(r.score), 2)                          AS avg_score,
+       MIN(r.score)                                    AS min_score,
+       MAX(r.score)                                    AS max_score,
+       ROUND(COALESCE(STDDEV_POP(r.score), 0), 2)      AS stddev_score,
+       COUNT(*) FILTER (WHERE r.score >= 50)           AS pass_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'green')  AS green_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'blue')   AS blue_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'yellow') AS yellow_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'red')    AS red_count
+FROM reports r
+JOIN modules m ON m.id = r.module_id
+GROUP BY r.academic_data_id, r.class_level, r.module_id, m.name, m.category;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_mv_module_score_stats
+    ON mv_module_score_stats (academic_data_id, class_level, module_id);
+
+-- Analytics: score histogram (10-point buckets, 90-100 merged) per module
+CREATE MATERIALIZED VIEW IF NOT EXISTS mv_module_score_histogram AS
+SELECT r.academic_data_id,
+       r.class_level,
+       r.module_id,
+       LEAST(r.score / 10, 9) AS bucket,
+       COUNT(*)               AS mark_count
+FROM reports r
+GROUP BY r.academic_data_id, r.class_level, r.module_id, LEAST(r.score / 10, 9);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_mv_module_score_histogram
+    ON mv_module_score_histogram (academic_data_id, class_level, module_id, bucket);
+
+-- Analytics: per-class statistics for each academic data
+CREATE MATERIALIZED VIEW IF NOT EXISTS mv_class_score_stats AS
+SELECT r.academic_data_id,
+       ad.academic_year,
+       ad.trimester,
+       ad.period,
+       r.class_level,
+       COUNT(DISTINCT r.student_id)                    AS student_count,
+       COUNT(*)                                        AS mark_count,
+       ROUND(AVG(r.score), 2)                          AS avg_score,
+       COUNT(*) FILTER (WHERE r.score >= 50)           AS pass_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'green')  AS green_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'blue')   AS blue_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'yellow') AS yellow_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'red')    AS red_count
+FROM reports r
+JOIN academic_data ad ON ad.id = r.academic_data_id
+GROUP BY r.academic_data_id, ad.academic_year, ad.trimester, ad.period, r.class_level;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_mv_class_score_stats
+    ON mv_class_score_stats (academic_data_id, class_level);
+
+-- Analytics: trimester aggregates per class level (all periods of a trimester combined)
+CREATE MATERIALIZED VIEW IF NOT EXISTS mv_trimester_trends AS
+SELECT r.class_level,
+       ad.academic_year,
+       ad.trimester,
+       COUNT(DISTINCT r.student_id)          AS student_count,
+       COUNT(*)                              AS mark_count,
+       ROUND(AVG(r.score), 2)                AS avg_score,
+       COUNT(*) FILTER (WHERE r.score >= 50) AS pass_count
+FROM reports r
+JOIN academic_data ad ON ad.id = r.academic_data_id
+GROUP BY r.class_level, ad.academic_year, ad.trimester;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_mv_trimester_trends
+    ON mv_trimester_trends (class_level, academic_year, trimester);
@@ -0,0 +1,18 @@
+-- Composite indexes matching the ReportRepository predicates
+
+-- Bulletins / parent views: WHERE student_id = ? AND academic_data_id = ?
+CREATE INDEX IF NOT EXISTS idx_reports_student_academic_data
+    ON reports (student_id, academic_data_id);
+
+-- Mark upsert lookup: WHERE student_id = ? AND module_id = ? AND academic_data_id = ?
+CREATE INDEX IF NOT EXISTS idx_reports_student_module_academic_data
+    ON reports (student_id, module_id, academic_data_id);
+
+-- Class listings, ranking and analytics: WHERE academic_data_id = ? AND class_level = ?
+-- Covers student_id and score so rankings are answered by an index-only scan
+CREATE INDEX IF NOT EXISTS idx_reports_academic_data_class_level
+    ON reports (academic_data_id, class_level) INCLUDE (student_id, score);
+
+-- Join tables are keyed parent/module first; lookups by student need their own index
+CREATE INDEX IF NOT EXISTS idx_parent_students_student ON parent_students (student_id);
+CREATE INDEX IF NOT EXISTS idx_student_modules_student ON student_modules (student_id);
@@ -0,0 +1,138 @@
+-- Partition reports by academic year (LIST partitioning, one partition per year: reports_y<year>).
+-- academic_year is copied from academic_data onto each report so the planner can prune partitions.
+-- New partitions are created by the application (ReportPartitionService) when a year first appears.
+
+-- The analytics views depend on reports; they are recreated at the end
+DROP MATERIALIZED VIEW IF EXISTS mv_module_score_stats;
+DROP MATERIALIZED VIEW IF EXISTS mv_module_score_histogram;
+DROP MATERIALIZED VIEW IF EXISTS mv_class_score_stats;
+DROP MATERIALIZED VIEW IF EXISTS mv_trimester_trends;
+
+ALTER TABLE reports RENAME TO reports_unpartitioned;
+ALTER INDEX IF EXISTS reports_pkey RENAME TO reports_unpartitioned_pkey;
+
+-- The partition key must be part of the primary key
+CREATE TABLE reports (
+    id               UUID        NOT NULL,
+    student_id       UUID        NOT NULL,
+    module_id        UUID        NOT NULL,
+    academic_data_id UUID        NOT NULL,
+    academic_year    INTEGER     NOT NULL,
+    class_level      VARCHAR(50) NOT NULL CHECK (class_level IN ('NURSERY_1', 'NURSERY_2', 'NURSERY_3', 'PRE_PRIMARY')),
+    score            INTEGER     NOT NULL,
+    grade_color      VARCHAR(255),
+    teacher_comment  VARCHAR(500),
+    teacher_id       UUID,
+    approved_by      UUID,
+    date_recorded    DATE,
+    PRIMARY KEY (id, academic_year)
+) PARTITION BY LIST (academic_year);
+
+DO $$
+DECLARE
+    y INTEGER;
+BEGIN
+    FOR y IN SELECT DISTINCT academic_year FROM academic_data LOOP
+        EXECUTE format('CREATE TABLE reports_y%s PARTITION OF reports FOR VALUES IN (%s)', y, y);
+    END LOOP;
+END $$;
+
+INSERT INTO reports (id, student_id, module_id, academic_data_id, academic_year, class_level, score,
+                     grade_color, teacher_comment, teacher_id, approved_by, date_recorded)
+SELECT r.id, r.student_id, r.module_id, r.academic_data_id, ad.academic_year, r.class_level, r.score,
+       r.grade_color, r.teacher_comment, r.teacher_id, r.approved_by, r.date_recorded
+FROM reports_unpartitioned r
+JOIN academic_data ad ON ad.id = r.academic_data_id;
+
+DROP TABLE reports_unpartitioned;
+
+ALTER TABLE reports ADD CONSTRAINT fk_reports_student FOREIGN KEY (student_id) REFERENCES students;
+ALTER TABLE reports ADD CONSTRAINT fk_reports_module FOREIGN KEY (module_id) REFERENCES modules;
+ALTER TABLE reports ADD CONSTRAINT fk_reports_academic_data FOREIGN KEY (academic_data_id) REFERENCES academic_data;
+ALTER TABLE reports ADD CONSTRAINT fk_reports_teacher FOREIGN KEY (teacher_id) REFERENCES users;
+ALTER TABLE reports ADD CONSTRAINT fk_reports_approved_by FOREIGN KEY (approved_by) REFERENCES users;
+
+-- Indexes from V3, now created on every partition
+CREATE INDEX idx_reports_student_academic_data
+    ON reports (student_id, academic_data_id);
+
+CREATE INDEX idx_reports_student_module_academic_data
+    ON reports (student_id, module_id, academic_data_id);
+
+CREATE INDEX idx_reports_academic_data_class_level
+    ON reports (academic_data_id, class_level) INCLUDE (student_id, score);
+
+-- Analytics: per-module score statistics for each academic data and class level
+CREATE MATERIALIZED VIEW IF NOT EXISTS mv_module_score_stats AS
+SELECT r.academic_data_id,
+       r.class_level,
+       r.module_id,
+       m.name                                          AS module_name,
+       m.category                                      AS module_category,
+       COUNT(*)                                        AS mark_count,
+       ROUND(AVG(r.score), 2)                          AS avg_score,
+       MIN(r.score)                                    AS min_score,
+       MAX(r.score)                                    AS max_score,
+       ROUND(COALESCE(STDDEV_POP(r.score), 0), 2)      AS stddev_score,
+       COUNT(*) FILTER (WHERE r.score >= 50)           AS pass_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'green')  AS green_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'blue')   AS blue_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'yellow') AS yellow_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'red')    AS red_count
+FROM reports r
+JOIN modules m ON m.id = r.module_id
+GROUP BY r.academic_data_id, r.class_level, r.module_id, m.name, m.category;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_mv_module_score_stats
+    ON mv_module_score_stats (academic_data_id, class_level, module_id);
+
+-- Analytics: score histogram (10-point buckets, 90-100 merged) per module
+CREATE MATERIALIZED VIEW IF NOT EXISTS mv_module_score_histogram AS
+SELECT r.academic_data_id,
+       r.class_level,
+       r.module_id,
+       LEAST(r.score / 10, 9) AS bucket,
+       COUNT(*)               AS mark_count
+FROM reports r
+GROUP BY r.academic_data_id, r.class_level, r.module_id, LEAST(r.score / 10, 9);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_mv_module_score_histogram
+    ON mv_module_score_histogram (academic_data_id, class_level, module_id, bucket);
+
+-- Analytics: per-class statistics for each academic data
+CREATE MATERIALIZED VIEW IF NOT EXISTS mv_class_score_stats AS
+SELECT r.academic_data_id,
+       ad.academic_year,
+       ad.trimester,
+       ad.period,
+       r.class_level,
+       COUNT(DISTINCT r.student_id)                    AS student_count,
+       COUNT(*)                                        AS mark_count,
+       ROUND(AVG(r.score), 2)                          AS avg_score,
+       COUNT(*) FILTER (WHERE r.score >= 50)           AS pass_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'green')  AS green_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'blue')   AS blue_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'yellow') AS yellow_count,
+       COUNT(*) FILTER (WHERE r.grade_color = 'red')    AS red_count
+FROM reports r
+JOIN academic_data ad ON ad.id = r.academic_data_id
+GROUP BY r.academic_data_id, ad.academic_year, ad.trimester, ad.period, r.class_level;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_mv_class_score_stats
+    ON mv_class_score_stats (academic_data_id, class_level);
+
+-- Analytics: trimester aggregates per class level (all periods of a trimester combined)
+CREATE MATERIALIZED VIEW IF NOT EXISTS mv_trimester_trends AS
+SELECT r.class_level,
+       ad.academic_year,
+       ad.trimester,
+       COUNT(DISTINCT r.student_id)          AS student_count,
+       COUNT(*)                              AS mark_count,
+       ROUND(AVG(r.score), 2)                AS avg_score,
+       COUNT(*) FILTER (WHERE r.score >= 50) AS pass_count
+FROM reports r
+JOIN academic_data ad ON ad.id = r.academic_data_id
+GROUP BY r.class_level, ad.academic_year, ad.trimester;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_mv_trimester_trends
+    ON mv_trimester_trends (class_level, academic_year, trimester);
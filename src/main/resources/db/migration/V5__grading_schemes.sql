@@ -0,0 +1,31 @@
+-- Versioned grading schemes per class level: score bands -> grade colour.
+-- A new version is inserted for every change; the latest version whose effective_from_year is not after
+-- a report's academic year applies to it (NULL = all years).
+
+CREATE TABLE grading_schemes (
+    id                  UUID        NOT NULL,
+    class_level         VARCHAR(50) NOT NULL CHECK (class_level IN ('NURSERY_1', 'NURSERY_2', 'NURSERY_3', 'PRE_PRIMARY')),
+    version             INTEGER     NOT NULL,
+    effective_from_year INTEGER,
+    created_at          TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_grading_scheme_version UNIQUE (class_level, version)
+);
+
+-- Each band covers min_score up to the next band's min_score - 1
+CREATE TABLE grading_scheme_bands (
+    scheme_id   UUID        NOT NULL REFERENCES grading_schemes ON DELETE CASCADE,
+    min_score   INTEGER     NOT NULL CHECK (min_score BETWEEN 0 AND 100),
+    grade_color VARCHAR(20) NOT NULL CHECK (grade_color IN ('green', 'blue', 'yellow', 'red')),
+    PRIMARY KEY (scheme_id, min_score)
+);
+
+-- Version 1 of every class level: the thresholds that were hard-coded so far
+INSERT INTO grading_schemes (id, class_level, version, effective_from_year, created_at)
+SELECT gen_random_uuid(), level, 1, NULL, now()
+FROM unnest(ARRAY['NURSERY_1', 'NURSERY_2', 'NURSERY_3', 'PRE_PRIMARY']) AS level;
+
+INSERT INTO grading_scheme_bands (scheme_id, min_score, grade_color)
+SELECT s.id, b.min_score, b.grade_color
+FROM grading_schemes s
+CROSS JOIN (VALUES (80, 'green'), (70, 'blue'), (50, 'yellow'), (0, 'red')) AS b (min_score, grade_color);
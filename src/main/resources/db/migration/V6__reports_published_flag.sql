@@ -0,0 +1,19 @@
+-- Copy of academic_data.published on each report, so parent-facing reads filter reports alone instead
+-- of joining academic_data. Kept in sync by AcademicDataService (one UPDATE per publish/unpublish) and
+-- set from the academic data when a report is written.
+
+ALTER TABLE reports ADD COLUMN published BOOLEAN NOT NULL DEFAULT false;
+
+UPDATE reports r
+SET published = true
+FROM academic_data ad
+WHERE ad.id = r.academic_data_id
+  AND ad.published = true;
+
+-- Parent views and bulletins: WHERE student_id = ? [AND academic_data_id = ?] AND published
+CREATE INDEX idx_reports_published_student
+    ON reports (student_id, academic_data_id) WHERE published;
+
+-- Class bulletins: WHERE class_level = ? [AND academic_data_id = ?] AND published
+CREATE INDEX idx_reports_published_class_level
+    ON reports (class_level, academic_data_id) WHERE published;
@@ -0,0 +1,92 @@
+-- Read model of the parent views: one JSON document per student and published academic data, the
+-- GroupedReportResponse of its marks. Built by ReportCardService when the academic data is published
+-- (or on first read); any write to the data it was built from deletes it, so it is never stale.
+
+CREATE TABLE report_cards (
+    student_id       UUID      NOT NULL REFERENCES students ON DELETE CASCADE,
+    academic_data_id UUID      NOT NULL REFERENCES academic_data ON DELETE CASCADE,
+    document         JSONB     NOT NULL,
+    built_at         TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (student_id, academic_data_id)
+);
+
+CREATE INDEX idx_report_cards_academic_data ON report_cards (academic_data_id);
+
+-- Writers of marks take this lock shared and card builders exclusive, so a card is never built from
+-- marks that a concurrent transaction is changing
+CREATE FUNCTION report_cards_lock_shared(academic_data UUID) RETURNS void AS $$
+    SELECT pg_advisory_xact_lock_shared(hashtext('report_cards:' || academic_data::text));
+$$ LANGUAGE sql;
+
+CREATE FUNCTION report_cards_invalidate_report() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM report_cards_lock_shared(OLD.academic_data_id);
+        DELETE FROM report_cards WHERE student_id = OLD.student_id AND academic_data_id = OLD.academic_data_id;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        PERFORM report_cards_lock_shared(NEW.academic_data_id);
+        DELETE FROM report_cards WHERE student_id = NEW.student_id AND academic_data_id = NEW.academic_data_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_reports_report_cards
+    AFTER INSERT OR UPDATE OR DELETE ON reports
+    FOR EACH ROW EXECUTE FUNCTION report_cards_invalidate_report();
+
+-- Publishing, unpublishing or renaming an academic data
+CREATE FUNCTION report_cards_invalidate_academic_data() RETURNS trigger AS $$
+BEGIN
+    PERFORM report_cards_lock_shared(NEW.id);
+    DELETE FROM report_cards WHERE academic_data_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_academic_data_report_cards
+    AFTER UPDATE ON academic_data
+    FOR EACH ROW WHEN (OLD.* IS DISTINCT FROM NEW.*) EXECUTE FUNCTION report_cards_invalidate_academic_data();
+
+-- Names shown in the cards
+CREATE FUNCTION report_cards_invalidate_student() RETURNS trigger AS $$
+BEGIN
+    DELETE FROM report_cards WHERE student_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_students_report_cards
+    AFTER UPDATE OF student_code, first_name, last_name ON students
+    FOR EACH ROW EXECUTE FUNCTION report_cards_invalidate_student();
+
+CREATE FUNCTION report_cards_invalidate_module() RETURNS trigger AS $$
+BEGIN
+    DELETE FROM report_cards c
+    USING reports r
+    WHERE r.module_id = NEW.id
+      AND c.student_id = r.student_id
+      AND c.academic_data_id = r.academic_data_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_modules_report_cards
+    AFTER UPDATE OF name, category ON modules
+    FOR EACH ROW EXECUTE FUNCTION report_cards_invalidate_module();
+
+CREATE FUNCTION report_cards_invalidate_teacher() RETURNS trigger AS $$
+BEGIN
+    DELETE FROM report_cards c
+    USING reports r
+    WHERE r.teacher_id = NEW.id
+      AND c.student_id = r.student_id
+      AND c.academic_data_id = r.academic_data_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_users_report_cards
+    AFTER UPDATE OF full_name, email ON users
+    FOR EACH ROW EXECUTE FUNCTION report_cards_invalidate_teacher();
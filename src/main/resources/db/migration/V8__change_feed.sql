@@ -0,0 +1,72 @@
+-- Change feed for delta sync (GET /api/sync?since=<token>).
+-- change_seq is the id of the transaction that last wrote the row (pg_current_xact_id(): 64 bits,
+-- increasing, never wraps). A sync token is the oldest transaction still running when the sync read
+-- started, so a row written by a transaction that commits after a later one is never skipped; rows at
+-- the token are sent again on the next sync, clients apply them by id. Existing rows start at 0.
+
+ALTER TABLE reports ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE students ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE academic_data ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE FUNCTION sync_stamp_change() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_reports_change_seq
+    BEFORE INSERT OR UPDATE ON reports
+    FOR EACH ROW EXECUTE FUNCTION sync_stamp_change();
+
+CREATE TRIGGER trg_students_change_seq
+    BEFORE INSERT OR UPDATE ON students
+    FOR EACH ROW EXECUTE FUNCTION sync_stamp_change();
+
+CREATE TRIGGER trg_academic_data_change_seq
+    BEFORE INSERT OR UPDATE ON academic_data
+    FOR EACH ROW EXECUTE FUNCTION sync_stamp_change();
+
+-- Deleted rows, so clients can drop them; student_id scopes report deletions to the children synced
+CREATE TABLE sync_tombstones (
+    entity     VARCHAR(20) NOT NULL CHECK (entity IN ('REPORT', 'STUDENT', 'ACADEMIC_DATA')),
+    entity_id  UUID        NOT NULL,
+    student_id UUID,
+    change_seq BIGINT      NOT NULL,
+    deleted_at TIMESTAMP   NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_sync_tombstones_change_seq ON sync_tombstones (change_seq);
+
+CREATE FUNCTION sync_record_delete() RETURNS trigger AS $$
+BEGIN
+    -- OLD has a student_id only on reports
+    IF TG_ARGV[0] = 'REPORT' THEN
+        INSERT INTO sync_tombstones (entity, entity_id, student_id, change_seq)
+        VALUES ('REPORT', OLD.id, OLD.student_id, pg_current_xact_id()::text::bigint);
+    ELSIF TG_ARGV[0] = 'STUDENT' THEN
+        INSERT INTO sync_tombstones (entity, entity_id, student_id, change_seq)
+        VALUES ('STUDENT', OLD.id, OLD.id, pg_current_xact_id()::text::bigint);
+    ELSE
+        INSERT INTO sync_tombstones (entity, entity_id, change_seq)
+        VALUES (TG_ARGV[0], OLD.id, pg_current_xact_id()::text::bigint);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_reports_tombstone
+    AFTER DELETE ON reports
+    FOR EACH ROW EXECUTE FUNCTION sync_record_delete('REPORT');
+
+CREATE TRIGGER trg_students_tombstone
+    AFTER DELETE ON students
+    FOR EACH ROW EXECUTE FUNCTION sync_record_delete('STUDENT');
+
+CREATE TRIGGER trg_academic_data_tombstone
+    AFTER DELETE ON academic_data
+    FOR EACH ROW EXECUTE FUNCTION sync_record_delete('ACADEMIC_DATA');
+
+-- Sync of a parent's children: WHERE student_id IN (...) AND change_seq >= ?
+CREATE INDEX idx_reports_student_change_seq ON reports (student_id, change_seq);
+CREATE INDEX idx_academic_data_change_seq ON academic_data (change_seq);
@@ -0,0 +1,11 @@
+-- Tombstones are kept for sync.tombstone-retention, then pruned by SyncService. The highest change_seq
+-- pruned so far is kept here: a token at or below it may have missed deletions and gets a full sync.
+
+CREATE TABLE sync_state (
+    id                        BOOLEAN PRIMARY KEY DEFAULT true CHECK (id),
+    tombstones_pruned_through BIGINT  NOT NULL DEFAULT 0
+);
+
+INSERT INTO sync_state DEFAULT VALUES;
+
+CREATE INDEX idx_sync_tombstones_deleted_at ON sync_tombstones (deleted_at);
@@ -0,0 +1,152 @@
+package uruhingore.ua.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Wires the routing data source the way DataSourceRoutingConfiguration does, on two independent
+ * PostgreSQL instances standing in for the primary and a replica. Each instance holds a row naming
+ * it, so a query tells which one served the transaction.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingDataSourceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static HikariDataSource primaryPool;
+    static HikariDataSource replicaPool;
+    static ReplicaRoutingDataSource routingDataSource;
+    static ReplicaLagMonitor lagMonitor;
+    static JdbcTemplate jdbcTemplate;
+    static TransactionTemplate writeTransaction;
+    static TransactionTemplate readOnlyTransaction;
+
+    @BeforeAll
+    static void setUp() {
+        primaryPool = pool(PRIMARY, "primary");
+        replicaPool = pool(REPLICA, "replica");
+        for (HikariDataSource dataSource : new HikariDataSource[]{primaryPool, replicaPool}) {
+            JdbcTemplate setup = new JdbcTemplate(dataSource);
+            setup.execute("CREATE TABLE node (name text NOT NULL)");
+            setup.execute("CREATE TABLE marks (student text PRIMARY KEY, score int NOT NULL)");
+            setup.update("INSERT INTO node VALUES (?)", dataSource.getPoolName());
+        }
+
+        routingDataSource = new ReplicaRoutingDataSource(primaryPool, Map.of("replica", replicaPool), Duration.ofMinutes(1));
+        routingDataSource.afterPropertiesSet();
+        lagMonitor = new ReplicaLagMonitor(routingDataSource, Duration.ofSeconds(5));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+        if (primaryPool != null) {
+            primaryPool.close();
+        }
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToHealthyReplica() {
+        lagMonitor.checkReplicas();
+        authenticate("reader");
+
+        assertEquals("replica", readOnlyTransaction.execute(status -> servedBy()));
+    }
+
+    @Test
+    void readOnlyTransactionFallsBackToPrimaryWithoutHealthyReplica() {
+        routingDataSource.setHealthy("replica", false);
+        authenticate("reader");
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> servedBy()));
+    }
+
+    @Test
+    void writeGoesToPrimary() {
+        lagMonitor.checkReplicas();
+        authenticate("teacher");
+
+        String node = writeTransaction.execute(status -> {
+            jdbcTemplate.update("INSERT INTO marks VALUES ('STD1', 14) ON CONFLICT (student) DO UPDATE SET score = 14");
+            return servedBy();
+        });
+
+        assertEquals("primary", node);
+        assertEquals(14, new JdbcTemplate(primaryPool).queryForObject("SELECT score FROM marks WHERE student = 'STD1'", Integer.class));
+    }
+
+    @Test
+    void readsStayOnPrimaryAfterMarkUpdate() {
+        lagMonitor.checkReplicas();
+        authenticate("editor");
+        assertEquals("replica", readOnlyTransaction.execute(status -> servedBy()));
+
+        writeTransaction.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO marks VALUES ('STD2', 17) ON CONFLICT (student) DO UPDATE SET score = 17"));
+
+        // The writer sees their own mark, which the replica does not have yet
+        assertEquals("primary", readOnlyTransaction.execute(status -> servedBy()));
+        Integer score = readOnlyTransaction.execute(status ->
+                jdbcTemplate.queryForObject("SELECT score FROM marks WHERE student = 'STD2'", Integer.class));
+        assertEquals(17, score);
+
+        // Other users keep reading from the replica
+        authenticate("reader");
+        assertEquals("replica", readOnlyTransaction.execute(status -> servedBy()));
+    }
+
+    private static String servedBy() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, AuthorityUtils.createAuthorityList("TEACHER")));
+    }
+
+    private static HikariDataSource pool(PostgreSQLContainer<?> container, String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(container.getJdbcUrl());
+        dataSource.setUsername(container.getUsername());
+        dataSource.setPassword(container.getPassword());
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
@@ -0,0 +1,161 @@
+package uruhingore.ua.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the migrations against a real PostgreSQL, loads a realistic volume of marks and checks with
+ * EXPLAIN that the hot report finders are served by the composite indexes instead of sequential scans.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReportIndexPlanTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static Connection connection;
+    static String studentId;
+    static String moduleId;
+    static String academicDataId;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE reports_y2025 PARTITION OF reports FOR VALUES IN (2025)");
+            // 2,000 students x 12 modules x 9 periods = 216,000 marks
+            st.execute("""
+                    INSERT INTO academic_data (id, trimester, academic_year, period, published)
+                    SELECT gen_random_uuid(), t, 2025, p, t <> 'THIRD'
+                    FROM unnest(ARRAY['FIRST', 'SECOND', 'THIRD']) t,
+                         unnest(ARRAY['PERIOD_1', 'PERIOD_2', 'FINAL_SEMESTER']) p
+                    """);
+            st.execute("""
+                    INSERT INTO modules (id, name, category, active, index_order)
+                    SELECT gen_random_uuid(), 'Module ' || i, 'Category ' || (i % 3), true, i
+                    FROM generate_series(1, 12) i
+                    """);
+            st.execute("""
+                    INSERT INTO students (id, student_code, first_name, last_name, date_of_birth, gender,
+                                          class_level, academic_year, status)
+                    SELECT gen_random_uuid(), 'STD2025' || lpad(i::text, 4, '0'), 'First' || i, 'Last' || i,
+                           DATE '2020-01-01', 'MALE',
+                           (ARRAY['NURSERY_1', 'NURSERY_2', 'NURSERY_3', 'PRE_PRIMARY'])[1 + i % 4],
+                           '2025-2026', 'ACTIVE'
+                    FROM generate_series(1, 2000) i
+                    """);
+            st.execute("""
+                    INSERT INTO reports (id, student_id, module_id, academic_data_id, academic_year, published, class_level,
+                                         score, grade_color)
+                    SELECT gen_random_uuid(), s.id, m.id, ad.id, ad.academic_year, ad.published, s.class_level,
+                           (random() * 100)::int, 'green'
+                    FROM students s CROSS JOIN modules m CROSS JOIN academic_data ad
+                    """);
+            st.execute("ANALYZE");
+
+            try (ResultSet rs = st.executeQuery("""
+                    SELECT student_id, module_id, academic_data_id FROM reports LIMIT 1
+                    """)) {
+                rs.next();
+                studentId = rs.getString(1);
+                moduleId = rs.getString(2);
+                academicDataId = rs.getString(3);
+            }
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void studentAndAcademicDataFinderUsesCompositeIndex() throws SQLException {
+        String plan = explain("""
+                SELECT r.* FROM reports r
+                JOIN academic_data ad ON ad.id = r.academic_data_id
+                WHERE r.student_id = '%s' AND r.academic_data_id = '%s' AND ad.published = true
+                """.formatted(studentId, academicDataId));
+        assertUsesIndex(plan, "idx_reports_student_academic_data");
+    }
+
+    @Test
+    void publishedStudentFinderUsesPartialIndexWithoutJoin() throws SQLException {
+        String plan = explain("""
+                SELECT r.* FROM reports r
+                WHERE r.student_id = '%s' AND r.published = true
+                """.formatted(studentId));
+        assertUsesIndex(plan, "idx_reports_published_student");
+        assertFalse(plan.contains("academic_data"), () -> "Unexpected access to academic_data:\n" + plan);
+    }
+
+    @Test
+    void markUpsertLookupUsesCompositeIndex() throws SQLException {
+        String plan = explain("""
+                SELECT r.* FROM reports r
+                WHERE r.student_id = '%s' AND r.module_id = '%s' AND r.academic_data_id = '%s'
+                """.formatted(studentId, moduleId, academicDataId));
+        assertUsesIndex(plan, "idx_reports_student_module_academic_data");
+    }
+
+    @Test
+    void classLevelFinderUsesCoveringIndex() throws SQLException {
+        String plan = explain("""
+                SELECT r.student_id, AVG(r.score) FROM reports r
+                WHERE r.academic_data_id = '%s' AND r.class_level = 'NURSERY_2'
+                GROUP BY r.student_id
+                """.formatted(academicDataId));
+        assertUsesIndex(plan, "idx_reports_academic_data_class_level");
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * reports is partitioned, so the plan names the per-partition children of the index
+     */
+    private static void assertUsesIndex(String plan, String index) throws SQLException {
+        List<String> names = new ArrayList<>();
+        names.add(index);
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                     + "WHERE i.inhparent = '" + index + "'::regclass")) {
+            while (rs.next()) {
+                names.add(rs.getString(1));
+            }
+        }
+        assertTrue(names.stream().anyMatch(plan::contains), () -> "Expected a scan on " + index + " but got:\n" + plan);
+        assertFalse(plan.contains("Seq Scan on reports"), () -> "Unexpected sequential scan on reports:\n" + plan);
+    }
+}
@@ -0,0 +1,63 @@
+package uruhingore.ua.service;
+
+import com.itextpdf.text.pdf.PdfName;
+import com.itextpdf.text.pdf.PdfReader;
+import org.junit.jupiter.api.Test;
+import uruhingore.ua.dto.BulletinRequest;
+import uruhingore.ua.dto.ModuleGradeDto;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static uruhingore.ua.service.DocumentServiceFixtures.documentService;
+
+/**
+ * Identical bulletins must render to identical bytes in both PDF profiles
+ */
+class DeterministicPdfTest {
+
+    @Test
+    void sameMarksGiveSameBytes() throws Exception {
+        for (DocumentService.PdfProfile profile : DocumentService.PdfProfile.values()) {
+            DocumentService service = documentService(profile);
+            byte[] first = service.generateBulletinPdf(bulletin(75));
+            // Past the millisecond/seed that used to go into the random file identifier
+            Thread.sleep(5);
+            byte[] second = service.generateBulletinPdf(bulletin(75));
+
+            assertArrayEquals(first, second, profile + " renders differ");
+            PdfReader reader = new PdfReader(first);
+            assertEquals(1, reader.getNumberOfPages());
+            assertNull(reader.getInfo().get("CreationDate"));
+            reader.close();
+        }
+    }
+
+    @Test
+    void changedMarkChangesFileId() throws Exception {
+        DocumentService service = documentService(DocumentService.PdfProfile.COMPACT);
+        PdfReader before = new PdfReader(service.generateBulletinPdf(bulletin(75)));
+        PdfReader after = new PdfReader(service.generateBulletinPdf(bulletin(76)));
+
+        assertNotEquals(before.getTrailer().get(PdfName.ID).toString(), after.getTrailer().get(PdfName.ID).toString());
+        before.close();
+        after.close();
+    }
+
+    private static BulletinRequest bulletin(int score) {
+        return BulletinRequest.builder()
+                .studentName("Student 1")
+                .classe("Nursery 1")
+                .annee("2025")
+                .trimester("TRIMESTRE I")
+                .rank(1)
+                .classSize(20)
+                .moduleGrades(List.of(
+                        ModuleGradeDto.builder().moduleName("Module 1").score(score).build(),
+                        ModuleGradeDto.builder().moduleName("Module 2").score(60).build()))
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package uruhingore.ua.service;
+
+import org.springframework.test.util.ReflectionTestUtils;
+import uruhingore.ua.config.BulletinLayoutProperties;
+import uruhingore.ua.dto.BulletinRequest;
+import uruhingore.ua.dto.ModuleGradeDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * DocumentService for render tests: no repositories, default layout and grading table
+ */
+final class DocumentServiceFixtures {
+
+    private DocumentServiceFixtures() {
+    }
+
+    static DocumentService documentService(DocumentService.PdfProfile profile) {
+        GradingSchemeService gradingSchemeService = mock(GradingSchemeService.class);
+        when(gradingSchemeService.tableFor(any(), any())).thenReturn(GradingTable.DEFAULT);
+        DocumentService service = new DocumentService(null, null, null, null, gradingSchemeService,
+                BulletinLayout.compile(new BulletinLayoutProperties()));
+        ReflectionTestUtils.setField(service, "pdfProfile", profile);
+        return service;
+    }
+
+    /**
+     * Bulletins of a class of the given size, 12 modules each with varied scores
+     */
+    static List<BulletinRequest> bulletins(int count) {
+        List<BulletinRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<ModuleGradeDto> grades = new ArrayList<>();
+            for (int m = 0; m < 12; m++) {
+                grades.add(ModuleGradeDto.builder()
+                        .moduleName("Module " + (m + 1))
+                        .score((i * 7 + m * 13) % 101)
+                        .build());
+            }
+            requests.add(BulletinRequest.builder()
+                    .studentName("Student " + i)
+                    .classe("Nursery 1")
+                    .annee("2025")
+                    .trimester("TRIMESTRE I")
+                    .comment("Good progress this term")
+                    .rank(i + 1)
+                    .classSize(count)
+                    .moduleGrades(grades)
+                    .build());
+        }
+        return requests;
+    }
+}
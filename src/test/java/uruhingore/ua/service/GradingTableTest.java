@@ -0,0 +1,67 @@
+package uruhingore.ua.service;
+
+import org.junit.jupiter.api.Test;
+import uruhingore.ua.model.ClassLevel;
+import uruhingore.ua.model.GradingScheme;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compilation of grading schemes into score lookup tables
+ */
+class GradingTableTest {
+
+    @Test
+    void defaultTableKeepsTheOriginalThresholds() {
+        assertEquals("red", GradingTable.DEFAULT.gradeColor(0));
+        assertEquals("red", GradingTable.DEFAULT.gradeColor(49));
+        assertEquals("yellow", GradingTable.DEFAULT.gradeColor(50));
+        assertEquals("blue", GradingTable.DEFAULT.gradeColor(79));
+        assertEquals("green", GradingTable.DEFAULT.gradeColor(80));
+        assertEquals("green", GradingTable.DEFAULT.gradeColor(100));
+        assertEquals("0-49", GradingTable.DEFAULT.getBands().get(3).label());
+    }
+
+    @Test
+    void bandsAreCompiledFromAnyOrder() {
+        GradingTable table = GradingTable.compile(scheme(2025,
+                new GradingScheme.Band(0, "red"),
+                new GradingScheme.Band(90, "green"),
+                new GradingScheme.Band(60, "yellow")));
+
+        assertEquals(List.of("90-100", "60-89", "0-59"),
+                table.getBands().stream().map(GradingTable.Band::label).toList());
+        assertEquals("yellow", table.gradeColor(89));
+        assertEquals("green", table.band(120).gradeColor());
+        assertEquals("red", table.band(-5).gradeColor());
+        assertFalse(table.appliesTo(2024));
+        assertTrue(table.appliesTo(2025));
+    }
+
+    @Test
+    void invalidBandsAreRejected() {
+        // Gap below 50
+        assertThrows(IllegalArgumentException.class, () -> GradingTable.validate(List.of(
+                new GradingScheme.Band(50, "green"))));
+        // Duplicate minimum
+        assertThrows(IllegalArgumentException.class, () -> GradingTable.validate(List.of(
+                new GradingScheme.Band(50, "green"), new GradingScheme.Band(50, "blue"), new GradingScheme.Band(0, "red"))));
+        // Outside the analytics vocabulary
+        assertThrows(IllegalArgumentException.class, () -> GradingTable.validate(List.of(
+                new GradingScheme.Band(0, "purple"))));
+    }
+
+    private static GradingScheme scheme(Integer effectiveFromYear, GradingScheme.Band... bands) {
+        return GradingScheme.builder()
+                .classLevel(ClassLevel.NURSERY_1)
+                .version(2)
+                .effectiveFromYear(effectiveFromYear)
+                .bands(List.of(bands))
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package uruhingore.ua.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import uruhingore.ua.dto.BulletinRequest;
+
+import java.util.List;
+
+import static uruhingore.ua.service.DocumentServiceFixtures.bulletins;
+import static uruhingore.ua.service.DocumentServiceFixtures.documentService;
+
+/**
+ * Compares size and render time of the STANDARD and COMPACT PDF profiles on the same bulletins.
+ * Not part of the normal build: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class PdfProfileBenchmarkTest {
+
+    private static final int BULLETINS = 200;
+
+    @Test
+    void compareProfiles(TestReporter reporter) throws Exception {
+        List<BulletinRequest> requests = bulletins(BULLETINS);
+
+        for (DocumentService.PdfProfile profile : DocumentService.PdfProfile.values()) {
+            Result result = render(profile, requests);
+            reporter.publishEntry(profile.name(), String.format("%d bytes avg in %d ms over %d bulletins",
+                    result.bytes() / BULLETINS, result.millis(), BULLETINS));
+        }
+    }
+
+    private record Result(long bytes, long millis) {
+    }
+
+    private static Result render(DocumentService.PdfProfile profile, List<BulletinRequest> requests) throws Exception {
+        DocumentService service = documentService(profile);
+        // Warm up the JIT and the iText font caches before timing
+        for (int i = 0; i < 20; i++) {
+            service.generateBulletinPdf(requests.get(i));
+        }
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (BulletinRequest request : requests) {
+            bytes += service.generateBulletinPdf(request).length;
+        }
+        return new Result(bytes, (System.nanoTime() - start) / 1_000_000);
+    }
+}
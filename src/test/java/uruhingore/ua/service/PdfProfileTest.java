@@ -0,0 +1,46 @@
+package uruhingore.ua.service;
+
+import com.itextpdf.text.pdf.PdfReader;
+import org.junit.jupiter.api.Test;
+import uruhingore.ua.dto.BulletinRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uruhingore.ua.service.DocumentServiceFixtures.bulletins;
+import static uruhingore.ua.service.DocumentServiceFixtures.documentService;
+
+/**
+ * The COMPACT PDF profile gives smaller, valid PDF 1.5 bulletins
+ */
+class PdfProfileTest {
+
+    @Test
+    void compactProfileProducesSmallerBulletins() throws Exception {
+        List<BulletinRequest> requests = bulletins(10);
+
+        assertTrue(totalBytes(DocumentService.PdfProfile.COMPACT, requests)
+                < totalBytes(DocumentService.PdfProfile.STANDARD, requests), "COMPACT should be smaller than STANDARD");
+    }
+
+    @Test
+    void compactBulletinIsAValidPdf() throws Exception {
+        DocumentService service = documentService(DocumentService.PdfProfile.COMPACT);
+        byte[] pdf = service.generateBulletinPdf(bulletins(1).get(0));
+
+        PdfReader reader = new PdfReader(pdf);
+        assertEquals(1, reader.getNumberOfPages());
+        assertEquals('5', reader.getPdfVersion());
+        reader.close();
+    }
+
+    private static long totalBytes(DocumentService.PdfProfile profile, List<BulletinRequest> requests) throws Exception {
+        DocumentService service = documentService(profile);
+        long bytes = 0;
+        for (BulletinRequest request : requests) {
+            bytes += service.generateBulletinPdf(request).length;
+        }
+        return bytes;
+    }
+}